@@ -0,0 +1,76 @@
+package com.bench;
+
+import com.splay.trace.KeyDistribution;
+import java.util.SplittableRandom;
+
+/**
+ * Key access patterns used by the benchmarks. Each pattern generates a
+ * sequence of keys within {@code [0, n)}, from a fixed seed so that runs are
+ * reproducible.
+ * @author Benjamin Vial (29590765)
+ * @see KeyDistribution
+ */
+public enum AccessPattern {
+	/**
+	 * Every key is equally likely.
+	 */
+	UNIFORM {
+		@Override
+		KeyDistribution distribution(int n, int count) {
+			return KeyDistribution.uniform(n);
+		}
+	},
+	/**
+	 * Keys follow a Zipf distribution with exponent 1, scattered over the key
+	 * space so that popular keys are not neighbours.
+	 */
+	ZIPF {
+		@Override
+		KeyDistribution distribution(int n, int count) {
+			return KeyDistribution.zipf(n, 1.0);
+		}
+	},
+	/**
+	 * Keys are scanned in increasing order, wrapping around.
+	 */
+	SEQUENTIAL {
+		@Override
+		KeyDistribution distribution(int n, int count) {
+			return KeyDistribution.sequential(n);
+		}
+	},
+	/**
+	 * Keys are drawn uniformly from a small working set, which moves to a
+	 * different region of the key space every so often.
+	 */
+	WORKING_SET {
+		@Override
+		KeyDistribution distribution(int n, int count) {
+			return KeyDistribution.hotSet(n, Math.max(1, n / 100), Math.max(1, count / 16));
+		}
+	};
+	
+	/**
+	 * Creates the key distribution behind the pattern.
+	 * @param n Size of the key space
+	 * @param count Number of keys that will be generated
+	 * @return The key distribution
+	 */
+	abstract KeyDistribution distribution(int n, int count);
+	
+	/**
+	 * Generates a sequence of keys following the pattern.
+	 * @param n Size of the key space
+	 * @param count Number of keys to generate
+	 * @param seed Random seed
+	 * @return The generated keys
+	 */
+	int[] keys(int n, int count, long seed) {
+		KeyDistribution kd = distribution(n, count);
+		SplittableRandom r = new SplittableRandom(seed);
+		int[] keys = new int[count];
+		for (int i = 0; i < count; ++i)
+			keys[i] = kd.next(r);
+		return keys;
+	}
+}
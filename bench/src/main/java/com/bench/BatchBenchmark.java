@@ -0,0 +1,75 @@
+package com.bench;
+
+import com.splay.SplayPolicy;
+import com.splay.SplayTree;
+import com.splay.opcount.NullOperationCounter;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks batched splay tree lookups, with and without reordering them by
+ * key. Each invocation applies one batch; divide by the batch size for the
+ * time per lookup.
+ * @author Benjamin Vial (29590765)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BatchBenchmark {
+	private static final int KEY_COUNT = 1 << 20;
+	@Param({ "64", "1024", "16384" })
+	private int batch;
+	private int i;
+	private char[] ops;
+	@Param({ "UNIFORM", "ZIPF" })
+	private AccessPattern pattern;
+	private boolean[] results;
+	@Param({ "false", "true" })
+	private boolean reorder;
+	@Param({ "100000", "1000000" })
+	private int size;
+	private SplayTree st;
+	private int[] values;
+	
+	/**
+	 * Builds the tree and generates the keys to look up.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		st = new SplayTree(SplayPolicy.ALWAYS, new NullOperationCounter());
+		st.addAll(IntStream.range(0, size).map(v -> 2 * v).toArray());
+		// Keys span twice the tree size, so that half the lookups miss
+		values = pattern.keys(2 * size, KEY_COUNT, 42);
+		ops = new char[KEY_COUNT];
+		Arrays.fill(ops, 'f');
+		results = new boolean[KEY_COUNT];
+	}
+	
+	/**
+	 * Looks up a batch of keys.
+	 * @return The results
+	 */
+	@Benchmark
+	public boolean[] find() {
+		int off = i;
+		i = (i + batch) & (KEY_COUNT - 1);
+		st.apply(ops, values, off, batch, results, reorder);
+		return results;
+	}
+}
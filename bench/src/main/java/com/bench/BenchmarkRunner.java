@@ -0,0 +1,29 @@
+package com.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with allocation profiling enabled. Accepts the usual
+ * JMH command line options (e.g., a benchmark name pattern, or {@code -p} to
+ * override parameters).
+ * @author Benjamin Vial (29590765)
+ */
+public class BenchmarkRunner {
+	/**
+	 * Runs the benchmarks selected by the command line arguments.
+	 * @param args JMH command line options
+	 * @throws CommandLineOptionException If the options are invalid
+	 * @throws RunnerException If a benchmark fails
+	 */
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		new Runner(new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
@@ -0,0 +1,142 @@
+package com.bench;
+
+import com.huffman.HuffmanTree;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks building a Huffman coding tree, and encoding and decoding with
+ * it. The corpus is either the Jabberwock text (read from the file named by
+ * the {@code corpus.file} system property, {@code Jabberwock.txt} by
+ * default), or synthetic text of the given length drawn from the same
+ * character frequencies.
+ * @author Benjamin Vial (29590765)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class HuffmanTreeBenchmark {
+	private long bits;
+	private ByteBuffer buffer;
+	private char[] chars;
+	private String code;
+	private char[] decoded;
+	private char[] input;
+	@Param({ "0", "100000", "1000000" })
+	private int length;
+	private String text;
+	private HuffmanTree tree;
+	private int[] weights;
+	
+	/**
+	 * Loads the corpus, counts its character frequencies and builds the tree.
+	 * @throws IOException If the corpus file cannot be read
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		String file = System.getProperty("corpus.file", "Jabberwock.txt");
+		String source = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8)
+				.toLowerCase().replace("\n", "").replace("|", "");
+		text = length == 0 ? source : synthesize(source, length);
+		int[] freq = new int[Character.MAX_VALUE + 1];
+		int distinct = 0;
+		for (int i = 0; i < text.length(); ++i)
+			if (freq[text.charAt(i)]++ == 0)
+				++distinct;
+		chars = new char[distinct];
+		weights = new int[distinct];
+		for (int c = 0, j = 0; c < freq.length; ++c)
+			if (freq[c] > 0) {
+				chars[j] = (char) c;
+				weights[j++] = freq[c];
+			}
+		tree = HuffmanTree.build(chars, weights);
+		code = tree.encode(text);
+		input = text.toCharArray();
+		decoded = new char[input.length];
+		// Codes are at most as long as the number of distinct characters
+		buffer = ByteBuffer.allocateDirect(input.length / 8 * distinct + distinct);
+		bits = tree.encode(input, 0, input.length, buffer);
+	}
+	
+	/**
+	 * Builds a Huffman coding tree from the corpus frequencies.
+	 * @return The built tree
+	 */
+	@Benchmark
+	public HuffmanTree build() {
+		return HuffmanTree.build(chars, weights);
+	}
+	
+	/**
+	 * Decodes the encoded corpus.
+	 * @return The decoded text
+	 */
+	@Benchmark
+	public String decode() {
+		return tree.decode(code);
+	}
+	
+	/**
+	 * Decodes the encoded corpus into a reused array.
+	 * @return Number of decoded characters
+	 */
+	@Benchmark
+	public int decodeBuffer() {
+		buffer.rewind();
+		return tree.decode(buffer, bits, decoded, 0, decoded.length);
+	}
+	
+	/**
+	 * Encodes the corpus.
+	 * @return The encoded text
+	 */
+	@Benchmark
+	public String encode() {
+		return tree.encode(text);
+	}
+	
+	/**
+	 * Encodes the corpus into a reused buffer.
+	 * @return Number of code bits
+	 */
+	@Benchmark
+	public long encodeBuffer() {
+		buffer.clear();
+		return tree.encode(input, 0, input.length, buffer);
+	}
+	
+	/**
+	 * Draws synthetic text from the character frequencies of a source text.
+	 * @param source The text to draw characters from
+	 * @param n Length of the synthetic text
+	 * @return The synthetic text
+	 */
+	private static String synthesize(String source, int n) {
+		SplittableRandom r = new SplittableRandom(42);
+		StringBuilder sb = new StringBuilder(n);
+		for (int i = 0; i < n; ++i)
+			sb.append(source.charAt(r.nextInt(source.length())));
+		return sb.toString();
+	}
+}
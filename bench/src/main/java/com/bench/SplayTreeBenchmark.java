@@ -0,0 +1,93 @@
+package com.bench;
+
+import com.avl.AVLTree;
+import com.splay.SplayPolicy;
+import com.splay.SplayTree;
+import com.splay.opcount.NullOperationCounter;
+import com.tree.SearchTree;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the search trees' add, find and remove operations under several
+ * access patterns and tree sizes. Trees are bulk loaded with every even key in
+ * {@code [0, 2 * size)} and record nothing, so that only the tree operations
+ * are measured.
+ * @author Benjamin Vial (29590765)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SplayTreeBenchmark {
+	private static final int KEY_COUNT = 1 << 16;
+	private int i;
+	private int[] keys;
+	@Param({ "UNIFORM", "ZIPF", "SEQUENTIAL", "WORKING_SET" })
+	private AccessPattern pattern;
+	@Param({ "1000", "100000", "1000000" })
+	private int size;
+	private SearchTree st;
+	@Param({ "splay", "semi", "avl" })
+	private String tree;
+	
+	/**
+	 * Builds the tree and generates the keys to access.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		int[] values = IntStream.range(0, size).map(v -> 2 * v).toArray();
+		switch (tree) {
+		case "avl":
+			AVLTree avl = new AVLTree(new NullOperationCounter());
+			for (int v : values)
+				avl.add(v);
+			st = avl;
+			break;
+		case "semi":
+			st = new SplayTree(SplayPolicy.SEMI, new NullOperationCounter());
+			((SplayTree) st).addAll(values);
+			break;
+		default:
+			st = new SplayTree(SplayPolicy.ALWAYS, new NullOperationCounter());
+			((SplayTree) st).addAll(values);
+			break;
+		}
+		// Keys span twice the tree size, so that half the lookups miss
+		keys = pattern.keys(2 * size, KEY_COUNT, 42);
+	}
+	
+	/**
+	 * Adds a key, then removes it again, keeping the tree size stable.
+	 * @return The removed Node
+	 */
+	@Benchmark
+	public Object addRemove() {
+		int n = keys[i++ & (KEY_COUNT - 1)];
+		st.add(n);
+		return st.remove(n);
+	}
+	
+	/**
+	 * Looks up a key.
+	 * @return The Node found
+	 */
+	@Benchmark
+	public Object find() {
+		return st.find(keys[i++ & (KEY_COUNT - 1)]);
+	}
+}
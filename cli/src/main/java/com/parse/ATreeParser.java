@@ -0,0 +1,85 @@
+package com.parse;
+
+import com.avl.AVLTree;
+import com.select.TreeSelector;
+import com.splay.SplayTree;
+import com.tree.SearchTree;
+import com.tree.Traversal;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Scanner;
+
+/**
+ * Simple class for feeding command line arguments to the splay and AVL tree
+ * implementations.
+ * @author Benjamin Vial (29590765)
+ */
+public class ATreeParser implements StdInParser {
+	private final String prompt = "Do you wish to see the tree structure? (Y) or (N): ";
+	
+	/**
+	 * Builds a splay tree, or an AVL tree if requested, from the command line
+	 * arguments. Can also select whichever tree suits the operations best.
+	 * The tree structure is streamed in preorder (default), in order, in level
+	 * order or as a DOT graph.
+	 */
+	@Override
+	public void parse(String[] args) {
+		SearchTree st;
+		if (args.length > 1 && args[1].equalsIgnoreCase("avl"))
+			st = new AVLTree(args[0]);
+		else if (args.length > 1 && args[1].equalsIgnoreCase("auto"))
+			st = TreeSelector.build(args[0]);
+		else
+			st = new SplayTree(args[0]);
+		Scanner kb = new Scanner(System.in);
+		System.out.print(prompt);
+		String s = kb.next();
+		while (true) {
+			if (s.equalsIgnoreCase("Y")) {
+				dump(st, args.length > 2 ? args[2] : "preorder");
+				break;
+			}
+			else if (s.equalsIgnoreCase("N"))
+				break;
+			System.out.print(prompt);
+			s = kb.next();
+		}
+		kb.close();
+	}
+	
+	/**
+	 * Streams the tree structure to stdout in the specified format.
+	 * @param st The tree to display
+	 * @param format 'preorder', 'inorder', 'levelorder' or 'dot'
+	 */
+	private static void dump(SearchTree st, String format) {
+		Writer w = new BufferedWriter(new OutputStreamWriter(System.out));
+		try {
+			if (format.equalsIgnoreCase("dot"))
+				st.dumpDot(w);
+			else {
+				Traversal t = Traversal.PREORDER;
+				String name = "pre-order";
+				if (format.equalsIgnoreCase("inorder")) {
+					t = Traversal.INORDER;
+					name = "in-order";
+				}
+				else if (format.equalsIgnoreCase("levelorder")) {
+					t = Traversal.LEVEL_ORDER;
+					name = "level-order";
+				}
+				String title = "Final tree structure (" + name + " traversal):";
+				w.write("\n" + title + "\n" + title.replaceAll(".", "-") + "\n");
+				st.dump(w, t);
+				w.write('\n');
+			}
+			w.flush();
+		}
+		catch (IOException e) {
+			System.out.println("Could not display the tree: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package com.parse;
+
+import com.splay.trace.BinaryTraceWriter;
+import java.io.IOException;
+
+/**
+ * Simple class for feeding command line arguments to the operation file
+ * converter.
+ * @author Benjamin Vial (29590765)
+ */
+public class TraceParser implements StdInParser {
+	/**
+	 * Converts an operation file to the compact binary format, optionally
+	 * delta-encoding its values.
+	 */
+	@Override
+	public void parse(String[] args) {
+		boolean delta = args.length == 3 && args[2].equalsIgnoreCase("delta");
+		try {
+			long count = BinaryTraceWriter.convert(args[0], args[1], delta);
+			System.out.println("Converted " + count + " operations from '" + args[0]
+					+ "' to '" + args[1] + "'");
+		}
+		catch (IOException e) {
+			System.out.println("Could not convert '" + args[0] + "' to '" + args[1] + "': "
+					+ e.getMessage());
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.parse;
+
+import com.splay.trace.BinaryTraceWriter;
+import com.splay.trace.KeyDistribution;
+import com.splay.trace.TextTraceWriter;
+import com.splay.trace.TraceGenerator;
+import java.io.IOException;
+
+/**
+ * Simple class for feeding command line arguments to the synthetic
+ * operation generator.
+ * @author Benjamin Vial (29590765)
+ */
+public class WorkloadParser implements StdInParser {
+	/**
+	 * Generates an operation file from the command line arguments.
+	 */
+	@Override
+	public void parse(String[] args) {
+		String format = args.length > 6 ? args[6] : "text";
+		try {
+			long count = Long.parseLong(args[1]);
+			int n = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+			KeyDistribution kd = distribution(args.length > 2 ? args[2] : "uniform", n);
+			String[] mix = (args.length > 4 ? args[4] : "1:1:1").split(":");
+			if (mix.length != 3)
+				throw new IllegalArgumentException("Invalid operation mix: " + args[4]);
+			long seed = args.length > 5 ? Long.parseLong(args[5]) : 0;
+			TraceGenerator tg = new TraceGenerator(kd, Integer.parseInt(mix[0]), Integer.parseInt(mix[1]),
+					Integer.parseInt(mix[2]), seed);
+			if (format.equalsIgnoreCase("text")) {
+				try (TextTraceWriter ttw = new TextTraceWriter(args[0])) {
+					tg.generate(count, ttw);
+				}
+			}
+			else if (format.equalsIgnoreCase("binary") || format.equalsIgnoreCase("delta")) {
+				try (BinaryTraceWriter btw = new BinaryTraceWriter(args[0], format.equalsIgnoreCase("delta"))) {
+					tg.generate(count, btw);
+				}
+			}
+			else
+				throw new IllegalArgumentException("Invalid output format: " + format);
+			System.out.println("Generated " + count + " operations to '" + args[0] + "'");
+		}
+		catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
+			System.exit(1);
+		}
+		catch (IOException e) {
+			System.out.println("Could not establish stream with file '" + args[0] + "': "
+					+ e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	/**
+	 * Parses a key distribution.
+	 * @param s The distribution: {@code uniform}, {@code sequential},
+	 * {@code zipf:<s>} or {@code hotset:<size>:<period>}
+	 * @param n Size of the key space
+	 * @return The key distribution
+	 * @throws IllegalArgumentException If the distribution is invalid
+	 */
+	private static KeyDistribution distribution(String s, int n) {
+		String[] p = s.toLowerCase().split(":");
+		if (p[0].equals("uniform") && p.length == 1)
+			return KeyDistribution.uniform(n);
+		if (p[0].equals("sequential") && p.length == 1)
+			return KeyDistribution.sequential(n);
+		if (p[0].equals("zipf") && p.length <= 2)
+			return KeyDistribution.zipf(n, p.length > 1 ? Double.parseDouble(p[1]) : 1.0);
+		if (p[0].equals("hotset") && p.length <= 3)
+			return KeyDistribution.hotSet(n, p.length > 1 ? Integer.parseInt(p[1]) : Math.max(1, n / 100),
+					p.length > 2 ? Long.parseLong(p[2]) : 1 << 16);
+		throw new IllegalArgumentException("Invalid key distribution: " + s);
+	}
+}
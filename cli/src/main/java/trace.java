@@ -0,0 +1,16 @@
+import com.parse.TraceParser;
+
+/**
+ * Convenience class for parsing operation file conversion arguments.
+ * @author Benjamin Vial (29590765)
+ * @see TraceParser
+ */
+public class trace {
+	/**
+	 * Passes command line arguments to a {@code TraceParser}.
+	 * @param args Command line arguments
+	 */
+	public static void main(String[] args) {
+		new TraceParser().parse(args);
+	}
+}
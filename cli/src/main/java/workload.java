@@ -0,0 +1,16 @@
+import com.parse.WorkloadParser;
+
+/**
+ * Convenience class for parsing synthetic operation generator arguments.
+ * @author Benjamin Vial (29590765)
+ * @see WorkloadParser
+ */
+public class workload {
+	/**
+	 * Passes command line arguments to a {@code WorkloadParser}.
+	 * @param args Command line arguments
+	 */
+	public static void main(String[] args) {
+		new WorkloadParser().parse(args);
+	}
+}
@@ -0,0 +1,454 @@
+package com.avl;
+
+import com.splay.opcount.OperationCounter;
+import com.splay.opcount.OperationCounter.Operation;
+import com.splay.trace.TraceReplayer;
+import com.tree.SearchTree;
+import com.tree.Traversal;
+import com.tree.TreeDumper;
+import java.io.IOException;
+
+/**
+ * AVL tree implementation. Keeps itself height-balanced through rotations on
+ * additions and removals, and leaves its structure untouched on searches.
+ * @author Benjamin Vial (29590765)
+ */
+public class AVLTree implements SearchTree {
+	private static final TreeDumper<AVLNode> DUMPER = new TreeDumper<AVLNode>() {
+		@Override
+		protected void label(AVLNode an, Appendable out) throws IOException {
+			out.append(Integer.toString(an.val()));
+		}
+		
+		@Override
+		protected AVLNode left(AVLNode an) {
+			return an.left();
+		}
+		
+		@Override
+		protected AVLNode right(AVLNode an) {
+			return an.right();
+		}
+	};
+	private static final long PROGRESS_INTERVAL = 1 << 16;
+	private int count;
+	private AVLNode last;
+	private final OperationCounter opcount;
+	private AVLNode root;
+	
+	/**
+	 * AVL tree Node class. Contains a pointer to its left and right children
+	 * as well as the height of its subtree.
+	 */
+	private class AVLNode implements IntNode {
+		private int height;
+		private AVLNode left;
+		private AVLNode right;
+		private int val;
+		
+		/**
+		 * Constructor. Takes an integer value, and creates a leaf Node.
+		 * @param v Node value
+		 */
+		public AVLNode(int v) {
+			height = 1;
+			val = v;
+		}
+		
+		/**
+		 * @return Difference between the heights of the left and right
+		 * subtrees
+		 */
+		public int balance() {
+			return AVLTree.height(left) - AVLTree.height(right);
+		}
+		
+		/**
+		 * @return Height of the subtree
+		 */
+		public int height() {
+			return height;
+		}
+		
+		/**
+		 * @return Left child
+		 */
+		public AVLNode left() {
+			return left;
+		}
+		
+		/**
+		 * @return Right child
+		 */
+		public AVLNode right() {
+			return right;
+		}
+		
+		/**
+		 * Sets the left child to the specified Node.
+		 * @param an New left child
+		 */
+		public void setLeft(AVLNode an) {
+			opcount.parentChange();
+			left = an;
+		}
+		
+		/**
+		 * Sets the right child to the specified Node.
+		 * @param an New right child
+		 */
+		public void setRight(AVLNode an) {
+			opcount.parentChange();
+			right = an;
+		}
+		
+		/**
+		 * Used to display the Node's value, followed by its left and right
+		 * children (essentially a preorder traversal display).
+		 */
+		@Override
+		public String toString() {
+			return DUMPER.toString(this);
+		}
+		
+		/**
+		 * Recomputes the height of the subtree from its children's heights.
+		 */
+		public void update() {
+			height = 1 + Math.max(AVLTree.height(left), AVLTree.height(right));
+		}
+		
+		/**
+		 * @return Node value
+		 */
+		public int val() {
+			return val;
+		}
+	}
+	
+	/**
+	 * Default constructor. Creates an empty AVL tree.
+	 */
+	public AVLTree() {
+		this(new OperationCounter());
+	}
+	
+	/**
+	 * Used to create an empty AVL tree, recording its operations with the
+	 * specified counter (e.g., a {@code NullOperationCounter} to turn counting
+	 * off).
+	 * @param oc The operation counter to record operations with
+	 */
+	public AVLTree(OperationCounter oc) {
+		opcount = oc;
+		root = null;
+	}
+	
+	/**
+	 * Used to create an empty AVL tree, then builds its structure according
+	 * to the specified input file.
+	 * @param file The file to build the tree from
+	 */
+	public AVLTree(String file) {
+		this();
+		build(file);
+	}
+	
+	/**
+	 * Convenience method for {@code add(n, root)}.
+	 * @param n The value to add to the tree
+	 * @return The created Node
+	 */
+	@Override
+	public AVLNode add(int n) {
+		opcount.add();
+		long start = opcount.begin();
+		root = add(n, root);
+		++count;
+		opcount.end(Operation.ADD, start);
+		return last;
+	}
+	
+	/**
+	 * Builds the AVL tree according to the operations defined in the file.
+	 * @param file The file to build the tree from
+	 */
+	public void build(String file) {
+		System.out.print("Building AVL tree from '" + file + "'; processing line ");
+		try {
+			new TraceReplayer(this, PROGRESS_INTERVAL).replay(file);
+			System.out.println("all done!\n");
+			System.out.println(stats());
+		}
+		catch (IOException e) {
+			System.out.println("Could not establish stream with file '" + file + "'");
+			System.exit(1);
+		}
+	}
+	
+	/**
+	 * @return The operation counter recording this tree's operations
+	 */
+	@Override
+	public OperationCounter counter() {
+		return opcount;
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dump(Appendable out, Traversal t) throws IOException {
+		DUMPER.dump(root, t, out);
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dumpDot(Appendable out) throws IOException {
+		DUMPER.dumpDot(root, out);
+	}
+	
+	/**
+	 * Unboxing form of {@code find(int)}.
+	 * @param n The value to search for
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	@Override
+	public AVLNode find(Integer n) {
+		return find(n.intValue());
+	}
+	
+	/**
+	 * Searches down the tree for the specified value, without restructuring.
+	 * @param n The value to search for
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	@Override
+	public AVLNode find(int n) {
+		opcount.find();
+		long start = opcount.begin();
+		int depth = 0;
+		AVLNode an = root;
+		while (an != null) {
+			opcount.compare();
+			if (an.val() == n)
+				break;
+			an = n < an.val() ? an.left() : an.right();
+			++depth;
+		}
+		opcount.access(depth);
+		opcount.end(Operation.FIND, start);
+		return an;
+	}
+	
+	/**
+	 * @return Number of levels in the tree ({@code 0} if empty)
+	 */
+	@Override
+	public int height() {
+		return height(root);
+	}
+	
+	/**
+	 * @return {@code true} if the tree is empty, {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+	
+	/**
+	 * Convenience method for {@code remove(n, root)}.
+	 * @param n The value to search for and remove
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	@Override
+	public AVLNode remove(int n) {
+		opcount.remove();
+		long start = opcount.begin();
+		last = null;
+		root = remove(n, root);
+		if (last != null)
+			--count;
+		opcount.end(Operation.REMOVE, start);
+		return last;
+	}
+	
+	/**
+	 * @return Number of values in the tree
+	 */
+	@Override
+	public int size() {
+		return count;
+	}
+	
+	/**
+	 * @return Output of the {@code OperationCounter}'s {@code stats()} method
+	 */
+	@Override
+	public String stats() {
+		return opcount.stats();
+	}
+	
+	/**
+	 * Used to display the tree's contents.
+	 */
+	@Override
+	public String toString() {
+		return DUMPER.toString(root);
+	}
+	
+	/**
+	 * Adds the specified value by searching down the given subtree for a
+	 * suitable location, then rebalances the subtree on the way back up. The
+	 * created Node is kept in {@code last}.
+	 * @param n The value to add to the tree
+	 * @param an The subtree to search through
+	 * @return The new root of the subtree
+	 */
+	private AVLNode add(int n, AVLNode an) {
+		if (an == null) {
+			last = new AVLNode(n);
+			return last;
+		}
+		opcount.compare();
+		if (n < an.val())
+			setLeft(an, add(n, an.left()));
+		else
+			setRight(an, add(n, an.right()));
+		return rebalance(an);
+	}
+	
+	/**
+	 * @param an The subtree to measure
+	 * @return Height of the subtree ({@code 0} if empty)
+	 */
+	private static int height(AVLNode an) {
+		return an == null ? 0 : an.height();
+	}
+	
+	/**
+	 * Restores the height balance of the given subtree, assuming both of its
+	 * children are balanced and their heights differ by at most two.
+	 * @param an The subtree to rebalance
+	 * @return The new root of the subtree
+	 */
+	private AVLNode rebalance(AVLNode an) {
+		an.update();
+		int balance = an.balance();
+		// Left-heavy
+		if (balance > 1) {
+			// Left-right case
+			if (an.left().balance() < 0)
+				setLeft(an, rotateLeft(an.left()));
+			return rotateRight(an);
+		}
+		// Right-heavy
+		if (balance < -1) {
+			// Right-left case
+			if (an.right().balance() > 0)
+				setRight(an, rotateRight(an.right()));
+			return rotateLeft(an);
+		}
+		return an;
+	}
+	
+	/**
+	 * Removes the specified value by searching down the given subtree, then
+	 * rebalances the subtree on the way back up. The removed Node is kept in
+	 * {@code last}.
+	 * @param n The value to remove
+	 * @param an The subtree to search through
+	 * @return The new root of the subtree
+	 */
+	private AVLNode remove(int n, AVLNode an) {
+		if (an == null)
+			return null;
+		opcount.compare();
+		if (an.val() == n) {
+			if (an.left() == null || an.right() == null) {
+				last = an;
+				return an.left() == null ? an.right() : an.left();
+			}
+			// Replace with the minimum of the right subtree
+			AVLNode right = removeMin(an.right());
+			AVLNode min = last;
+			min.setLeft(an.left());
+			min.setRight(right);
+			last = an;
+			return rebalance(min);
+		}
+		if (n < an.val())
+			setLeft(an, remove(n, an.left()));
+		else
+			setRight(an, remove(n, an.right()));
+		return rebalance(an);
+	}
+	
+	/**
+	 * Detaches the minimum value of the given subtree, then rebalances the
+	 * subtree on the way back up. The detached Node is kept in {@code last}.
+	 * @param an The subtree to search through
+	 * @return The new root of the subtree
+	 */
+	private AVLNode removeMin(AVLNode an) {
+		if (an.left() == null) {
+			last = an;
+			return an.right();
+		}
+		setLeft(an, removeMin(an.left()));
+		return rebalance(an);
+	}
+	
+	/**
+	 * Rotates the given subtree to the left.
+	 * @param an The subtree to rotate
+	 * @return The new root of the subtree
+	 */
+	private AVLNode rotateLeft(AVLNode an) {
+		AVLNode right = an.right();
+		an.setRight(right.left());
+		right.setLeft(an);
+		an.update();
+		right.update();
+		return right;
+	}
+	
+	/**
+	 * Rotates the given subtree to the right.
+	 * @param an The subtree to rotate
+	 * @return The new root of the subtree
+	 */
+	private AVLNode rotateRight(AVLNode an) {
+		AVLNode left = an.left();
+		an.setLeft(left.right());
+		left.setRight(an);
+		an.update();
+		left.update();
+		return left;
+	}
+	
+	/**
+	 * Sets the left child of the given Node, unless it is already the
+	 * specified Node, so that unchanged links are not counted.
+	 * @param an The Node to update
+	 * @param child New left child
+	 */
+	private static void setLeft(AVLNode an, AVLNode child) {
+		if (an.left() != child)
+			an.setLeft(child);
+	}
+	
+	/**
+	 * Sets the right child of the given Node, unless it is already the
+	 * specified Node, so that unchanged links are not counted.
+	 * @param an The Node to update
+	 * @param child New right child
+	 */
+	private static void setRight(AVLNode an, AVLNode child) {
+		if (an.right() != child)
+			an.setRight(child);
+	}
+}
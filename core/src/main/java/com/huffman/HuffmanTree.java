@@ -0,0 +1,800 @@
+package com.huffman;
+
+import com.huffman.heap.HuffmanHeap;
+import com.monitor.CodecMetrics;
+import com.monitor.RebuildEvent;
+import com.tree.BinaryTree;
+import com.tree.Traversal;
+import com.tree.TreeDumper;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Scanner;
+
+/**
+ * Huffman coding tree implementation. Uses an auxiliary min-heap to build
+ * itself. Besides the {@code String} forms, encoding and decoding can work
+ * on caller-owned buffers, packing code bits most significant first; those
+ * forms allocate nothing once the code tables have been derived from the
+ * tree, on first use.
+ * @author Benjamin Vial (29590765)
+ * @see HuffmanHeap
+ */
+public class HuffmanTree implements BinaryTree<Character>, Comparable<HuffmanTree> {
+	private static final TreeDumper<HuffmanNode> DUMPER = new TreeDumper<HuffmanNode>() {
+		@Override
+		protected void label(HuffmanNode hn, Appendable out) throws IOException {
+			out.append(Integer.toString(hn.weight()));
+			if (hn instanceof HuffmanLeaf)
+				out.append('-').append(((HuffmanLeaf) hn).val());
+		}
+		
+		@Override
+		protected HuffmanNode left(HuffmanNode hn) {
+			return hn instanceof HuffmanInternal ? ((HuffmanInternal) hn).left() : null;
+		}
+		
+		@Override
+		protected HuffmanNode right(HuffmanNode hn) {
+			return hn instanceof HuffmanInternal ? ((HuffmanInternal) hn).right() : null;
+		}
+	};
+	// Longest code that fits in a table entry alongside its length
+	private static final int MAX_CODE_LENGTH = 57;
+	private CodecMetrics metrics;
+	private HuffmanNode root;
+	// Derived on first use, and only published once complete
+	private volatile Tables tables;
+	
+	/**
+	 * Huffman internal Node. Contains a pointer to its left and right children
+	 * as well as their combined weight.
+	 */
+	private class HuffmanInternal extends HuffmanNode {
+		private HuffmanNode left;
+		private HuffmanNode right;
+		
+		/**
+		 * Constructor. Takes a left and a right Node, as well as their
+		 * combined weight as parameters.
+		 * @param l Left child
+		 * @param r Right child
+		 * @param w Combined weight of the children
+		 */
+		public HuffmanInternal(HuffmanNode l, HuffmanNode r, int w) {
+			super(w);
+			left = l;
+			right = r;
+		}
+		
+		/**
+		 * @return Left child
+		 */
+		public HuffmanNode left() {
+			return left;
+		}
+		
+		/**
+		 * @return Right child
+		 */
+		public HuffmanNode right() {
+			return right;
+		}
+		
+		/**
+		 * Used to display the Node's weight, followed by its left and right
+		 * children (essentially a preorder traversal display).
+		 */
+		@Override
+		public String toString() {
+			return DUMPER.toString(this);
+		}
+	}
+	
+	/**
+	 * Huffman leaf Node. Contains a character value as well as its weight.
+	 */
+	private class HuffmanLeaf extends HuffmanNode {
+		private char val;
+		
+		/**
+		 * Constructor. Takes a character and an integer value.
+		 * @param c Encoded character
+		 * @param w Character weight
+		 */
+		public HuffmanLeaf(char c, int w) {
+			super(w);
+			val = c;
+		}
+		
+		/**
+		 * Used to display the Node's weight followed by its character value.
+		 */
+		@Override
+		public String toString() {
+			return DUMPER.toString(this);
+		}
+		
+		/**
+		 * @return Encoded character
+		 */
+		public char val() {
+			return val;
+		}
+	}
+	
+	/**
+	 * Abstract HuffmanNode class. Extended by {@code HuffmanInternal} and
+	 * {@code HuffmanLeaf}.
+	 * @see HuffmanInternal, HuffmanLeaf
+	 */
+	abstract private class HuffmanNode implements BinaryNode<Character>, Comparable<HuffmanNode> {
+		protected int weight;
+		
+		/**
+		 * Constructor.
+		 * @param w Node weight
+		 */
+		public HuffmanNode(int w) {
+			weight = w;
+		}
+		
+		/**
+		 * {@code Comparable<T>} method override.
+		 */
+		@Override
+		public int compareTo(HuffmanNode hn) {
+			if (weight < hn.weight())
+				return -1;
+			if (weight == hn.weight())
+				return 0;
+			return 1;
+		}
+		
+		/**
+		 * @return Node weight
+		 */
+		public int weight() {
+			return weight;
+		}
+	}
+	
+	/**
+	 * Code and flattened child tables derived from the tree, which the buffer
+	 * forms of encoding and decoding work from.
+	 */
+	private static final class Tables {
+		// Child indices of every internal Node, in pairs; leaves are ~character
+		private final int[] children;
+		// Code bits shifted left by 6, ORed with the code length; -1 if absent
+		private final long[] codes;
+		
+		/**
+		 * Constructor. Creates empty tables of the specified sizes.
+		 * @param max Greatest character of the tree
+		 * @param leaves Number of leaves of the tree
+		 */
+		private Tables(int max, int leaves) {
+			children = new int[2 * (leaves - 1)];
+			codes = new long[max + 1];
+			Arrays.fill(codes, -1);
+		}
+	}
+	
+	/**
+	 * Used to build a Huffman coding tree from given character and frequency
+	 * arrays.
+	 * @param c Character array
+	 * @param w Frequency array
+	 * @return Resulting Huffman coding tree
+	 */
+	public static HuffmanTree build(char[] c, int[] w) {
+		return build(new HuffmanHeap(c, w));
+	}
+	
+	/**
+	 * Used to build a Huffman coding tree from a given input file.
+	 * @param file The file to build the tree from
+	 * @return Resulting Huffman coding tree
+	 */
+	public static HuffmanTree build(String file) {
+		System.out.println("Building Huffman coding tree from '" + file + "'\n");
+		return build(new HuffmanHeap(file));
+	}
+	
+	/**
+	 * Used to build a Huffman coding tree from an auxiliary min-heap.
+	 * @param hh Custom min-heap
+	 * @return Resulting Huffman coding tree
+	 */
+	private static HuffmanTree build(HuffmanHeap hh) {
+		RebuildEvent re = new RebuildEvent();
+		re.begin();
+		int leaves = hh.size();
+		HuffmanTree ht1, ht2, ht3 = null;
+		while (hh.size() > 1) {
+			ht1 = hh.removeMin();
+			ht2 = hh.removeMin();
+			ht3 = new HuffmanTree(ht1, ht2);
+			hh.insert(ht3);
+		}
+		hh = null;
+		ht1 = ht2 = null;
+		if (re.shouldCommit()) {
+			re.tree = "huffman";
+			re.nodes = 2 * leaves - 1;
+			re.commit();
+		}
+		return ht3;
+	}
+	
+	/**
+	 * Used to construct a Huffman coding tree from a single character entry.
+	 * @param c Encoded character
+	 * @param w Character weight
+	 */
+	public HuffmanTree(char c, int w) {
+		root = new HuffmanLeaf(c, w);
+	}
+	
+	/**
+	 * Used to construct a Huffman coding tree by joining two Nodes under the
+	 * same root.
+	 * @param l Left child
+	 * @param r Right child
+	 * @param w Combined weight of the children
+	 */
+	public HuffmanTree(HuffmanNode l, HuffmanNode r, int w) {
+		root = new HuffmanInternal(l, r, w);
+	}
+	
+	/**
+	 * Used to construct a Huffman coding tree by merging two smaller trees.
+	 * @param ht1 Left subtree
+	 * @param ht2 Right subtree
+	 */
+	public HuffmanTree(HuffmanTree ht1, HuffmanTree ht2) {
+		root = new HuffmanInternal(ht1.root(), ht2.root(), ht1.weight() + ht2.weight());
+	}
+	
+	/**
+	 * {@code Comparable<T>} method override.
+	 */
+	@Override
+	public int compareTo(HuffmanTree ht) {
+		if (root.weight < ht.root().weight())
+			return -1;
+		if (root.weight == ht.root().weight())
+			return 0;
+		return 1;
+	}
+	
+	/**
+	 * Checks whether the specified subtree contains the specified character.
+	 * More explicit form of: {@code find(c)}.
+	 * @param c Character to check for
+	 * @return {@code true} if the character is found, {@code false} otherwise
+	 */
+	public boolean contains(char c) {
+		if (find(c, root) != null)
+			return true;
+		return false;
+	}
+	
+	/**
+	 * Decodes the specified number of code bits from the source buffer into
+	 * the destination buffer, one byte per character. Reads whole bytes from
+	 * the source position, which is advanced past them; a trailing partial
+	 * code is ignored.
+	 * @param src The buffer to read the code bits from
+	 * @param bits Number of code bits to decode
+	 * @param dst The buffer to write the characters to
+	 * @return Number of characters written
+	 * @throws BufferUnderflowException If the source holds fewer bits, in
+	 *         which case neither buffer is changed
+	 * @throws BufferOverflowException If the destination is full before the
+	 *         end, in which case neither position is changed
+	 * @throws IllegalArgumentException If a decoded character does not fit in
+	 *         a byte
+	 */
+	public int decode(ByteBuffer src, long bits, ByteBuffer dst) {
+		return decode(src, bits, null, 0, 0, dst);
+	}
+	
+	/**
+	 * Decodes the specified number of code bits from the source buffer into
+	 * the specified range of the destination array. Reads whole bytes from
+	 * the source position, which is advanced past them; a trailing partial
+	 * code is ignored.
+	 * @param src The buffer to read the code bits from
+	 * @param bits Number of code bits to decode
+	 * @param dst The array to write the characters to
+	 * @param off The first index of the range
+	 * @param len The length of the range
+	 * @return Number of characters written
+	 * @throws BufferUnderflowException If the source holds fewer bits, in
+	 *         which case its position is not changed
+	 * @throws BufferOverflowException If the range is full before the end,
+	 *         in which case the source position is not changed
+	 * @throws IndexOutOfBoundsException If the range is out of bounds
+	 */
+	public int decode(ByteBuffer src, long bits, char[] dst, int off, int len) {
+		Objects.checkFromIndexSize(off, len, dst.length);
+		return decode(src, bits, dst, off, len, null);
+	}
+	
+	/**
+	 * Decodes the specified string of {@code 0}'s and {@code 1}'s.
+	 * @param s String to decode
+	 * @return Decoded string
+	 */
+	public String decode(String s) {
+		if (isEmpty() || s.length() == 0)
+			return null;
+		long start = metrics != null ? System.nanoTime() : 0;
+		StringBuilder sb = new StringBuilder();
+		HuffmanNode hn = root;
+		for (char c : s.toCharArray()) {
+			if (hn instanceof HuffmanInternal) {
+				HuffmanInternal hi = (HuffmanInternal) hn;
+				if (c == '0') {
+					hn = hi.left();
+					if (hn instanceof HuffmanLeaf) {
+						HuffmanLeaf hl = (HuffmanLeaf) hn;
+						sb.append(hl.val());
+						hn = root;
+					}
+				}
+				else if (c == '1') {
+					hn = hi.right();
+					if (hn instanceof HuffmanLeaf) {
+						HuffmanLeaf hl = (HuffmanLeaf) hn;
+						sb.append(hl.val());
+						hn = root;
+					}
+				}
+			}
+		}
+		if (metrics != null)
+			metrics.decoded(s.length(), sb.length(), System.nanoTime() - start);
+		return sb.toString();
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dump(Appendable out, Traversal t) throws IOException {
+		DUMPER.dump(root, t, out);
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dumpDot(Appendable out) throws IOException {
+		DUMPER.dumpDot(root, out);
+	}
+	
+	/**
+	 * Encodes the specified range of bytes, each read as a character from
+	 * {@code \u0000} to {@code \u00FF}, into the destination buffer. The
+	 * source position is not changed.
+	 * @param src The buffer to read the characters from
+	 * @param off The first index of the range
+	 * @param len The length of the range
+	 * @param dst The buffer to write the code bits to, from its position
+	 * @return Number of code bits written; the last byte is padded with
+	 *         {@code 0}'s
+	 * @throws BufferOverflowException If the destination is full before the
+	 *         end, in which case its position is not changed
+	 * @throws IndexOutOfBoundsException If the range is out of bounds
+	 * @throws NoSuchElementException If a character is not in the tree
+	 */
+	public long encode(ByteBuffer src, int off, int len, ByteBuffer dst) {
+		Objects.checkFromIndexSize(off, len, src.limit());
+		return encode(null, null, src, off, len, dst);
+	}
+	
+	/**
+	 * Encodes the specified range of characters into the destination buffer.
+	 * @param src The characters to encode
+	 * @param off The first index of the range
+	 * @param len The length of the range
+	 * @param dst The buffer to write the code bits to, from its position
+	 * @return Number of code bits written; the last byte is padded with
+	 *         {@code 0}'s
+	 * @throws BufferOverflowException If the destination is full before the
+	 *         end, in which case its position is not changed
+	 * @throws IndexOutOfBoundsException If the range is out of bounds
+	 * @throws NoSuchElementException If a character is not in the tree
+	 */
+	public long encode(CharSequence src, int off, int len, ByteBuffer dst) {
+		Objects.checkFromIndexSize(off, len, src.length());
+		return encode(src, null, null, off, len, dst);
+	}
+	
+	/**
+	 * Encodes the specified range of characters into the destination buffer.
+	 * @param src The characters to encode
+	 * @param off The first index of the range
+	 * @param len The length of the range
+	 * @param dst The buffer to write the code bits to, from its position
+	 * @return Number of code bits written; the last byte is padded with
+	 *         {@code 0}'s
+	 * @throws BufferOverflowException If the destination is full before the
+	 *         end, in which case its position is not changed
+	 * @throws IndexOutOfBoundsException If the range is out of bounds
+	 * @throws NoSuchElementException If a character is not in the tree
+	 */
+	public long encode(char[] src, int off, int len, ByteBuffer dst) {
+		Objects.checkFromIndexSize(off, len, src.length);
+		return encode(null, src, null, off, len, dst);
+	}
+	
+	/**
+	 * Encodes the specified string.
+	 * @param s String to encode
+	 */
+	public String encode(String s) {
+		if (isEmpty() || s.length() == 0)
+			return null;
+		long start = metrics != null ? System.nanoTime() : 0;
+		StringBuilder sb = new StringBuilder();
+		for (char c : s.toCharArray()) {
+			c = Character.toLowerCase(c);
+			if (!contains(c))
+				throw new NoSuchElementException("Character not found in coding tree: " + c);
+			encode(c, root, sb);
+		}
+		if (metrics != null)
+			metrics.encoded(s.length(), sb.length(), System.nanoTime() - start);
+		return sb.toString();
+	}
+	
+	/**
+	 * Searches through the specified file for a student-specific string, which
+	 * will then be encoded and output to the user.
+	 * @param file File to search through
+	 * @return Encoded string
+	 */
+	public String encodeFromFile(String file, String id) {
+		String s = null;
+		try {
+			Scanner sc = new Scanner(new FileInputStream(file));
+			sc.useDelimiter("\\|");
+			while (sc.hasNextLine()) {
+				s = sc.nextLine();
+				if (s.substring(0, 8).equals(id)) {
+					s = s.substring(9);
+					System.out.println("Encoding \"" + s + "\"");
+					s = encode(s) + "\n";
+					sc.close();
+					return s;
+				}
+			}
+			sc.close();
+		}
+		catch (FileNotFoundException e) {
+			System.out.println("Could not establish stream with file '" + file + "'");
+			System.exit(1);
+		}
+		s = "Could not find student ID '" + id + "' in file '" + file + "'";
+		return s;
+	}
+	
+	/**
+	 * Finds the specified character within the whole tree.
+	 * Shorthand form of: {@code find(c, root)}.
+	 * @param c Character to look for
+	 * @return {@code HuffmanLeaf} Node containing the character ({@code null}
+	 * if not found)
+	 */
+	@Override
+	public HuffmanLeaf find(Character c) {
+		return find(c, root);
+	}
+	
+	/**
+	 * Reads from stdin to encode user input.
+	 */
+	public void getInput() {
+		System.out.print("Enter a string to encode using Huffman coding: ");
+		Scanner kb = new Scanner(System.in);
+		String s = kb.nextLine();
+		while (!s.equals("/exit")) {
+			System.out.println("\"" + s + "\"\n" + encode(s) + "\n");
+			System.out.print("Enter another string, or '/exit' to quit: ");
+			s = kb.nextLine();
+		}
+		System.out.println("Terminating Huffman coding program");
+		kb.close();
+	}
+	
+	/**
+	 * Checks whether the tree is empty (i.e., its root is null).
+	 * @return {@code true} if empty, {@code false} otherwise.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+	
+	/**
+	 * @return Root of the tree
+	 */
+	public HuffmanNode root() {
+		return root;
+	}
+	
+	/**
+	 * Records the throughput of every subsequent encoding and decoding call
+	 * with the specified metrics.
+	 * @param cm The metrics to record with ({@code null} to stop recording)
+	 */
+	public void setMetrics(CodecMetrics cm) {
+		metrics = cm;
+	}
+	
+	/**
+	 * Used to display the tree's contents.
+	 */
+	@Override
+	public String toString() {
+		return DUMPER.toString(root);
+	}
+	
+	/**
+	 * @return Weight of the root
+	 */
+	public int weight() {
+		return root.weight();
+	}
+	
+	/**
+	 * Checks whether the specified subtree contains the specified character.
+	 * More explicit form of: {@code find(c, hn)}.
+	 * @param c Character to check for
+	 * @param hn Subtree to check in
+	 * @return {@code true} if the character is found, {@code false} otherwise
+	 */
+	private boolean contains(char c, HuffmanNode hn) {
+		if (find(c, hn) != null)
+			return true;
+		return false;
+	}
+	
+	/**
+	 * Decodes code bits into either a character array range or a byte
+	 * buffer, whichever is given, walking the flattened tree one bit at a
+	 * time.
+	 * @param src The buffer to read the code bits from
+	 * @param bits Number of code bits to decode
+	 * @param ca The array to write the characters to, or {@code null}
+	 * @param off The first index of the array range
+	 * @param len The length of the array range
+	 * @param bb The buffer to write the characters to, or {@code null}
+	 * @return Number of characters written
+	 */
+	private int decode(ByteBuffer src, long bits, char[] ca, int off, int len, ByteBuffer bb) {
+		if (bits < 0)
+			throw new IllegalArgumentException("Invalid bit count: " + bits);
+		long bytes = (bits + 7) >>> 3;
+		if (src.remaining() < bytes)
+			throw new BufferUnderflowException();
+		int from = src.position();
+		// A lone character has an empty code, so there is nothing to decode
+		if (isEmpty() || root instanceof HuffmanLeaf) {
+			src.position(from + (int) bytes);
+			return 0;
+		}
+		int[] children = tables().children;
+		long start = metrics != null ? System.nanoTime() : 0;
+		int mark = bb != null ? bb.position() : 0;
+		int count = 0;
+		int node = 0;
+		try {
+			for (long i = 0; i < bits; ) {
+				int b = src.get(from + (int) (i >>> 3));
+				for (int k = 7; k >= 0 && i < bits; --k, ++i) {
+					node = children[node << 1 | b >>> k & 1];
+					if (node < 0) {
+						char c = (char) ~node;
+						if (ca != null) {
+							if (count == len)
+								throw new BufferOverflowException();
+							ca[off + count] = c;
+						}
+						else {
+							if (c > 0xFF)
+								throw new IllegalArgumentException("Character does not fit in a byte: " + c);
+							bb.put((byte) c);
+						}
+						++count;
+						node = 0;
+					}
+				}
+			}
+		}
+		catch (RuntimeException e) {
+			if (bb != null)
+				bb.position(mark);
+			throw e;
+		}
+		src.position(from + (int) bytes);
+		if (metrics != null)
+			metrics.decoded(bits, count, System.nanoTime() - start);
+		return count;
+	}
+	
+	/**
+	 * Encodes the specified character by going down the specified subtree.
+	 * @param c Character to encode
+	 * @param hn Subtree to traverse
+	 * @param sb StringBuilder used to build the Huffman code
+	 */
+	private void encode(char c, HuffmanNode hn, StringBuilder sb) {
+		if (hn == null)
+			return;
+		if (contains(c, hn)) {
+			if (hn instanceof HuffmanLeaf)
+				return;
+			HuffmanInternal hi = (HuffmanInternal) hn;
+			if (contains(c, hi.left())) {
+				sb.append('0');
+				encode(c, hi.left(), sb);
+			}
+			else if (contains(c, hi.right())) {
+				sb.append('1');
+				encode(c, hi.right(), sb);
+			}
+		}
+	}
+	
+	/**
+	 * Encodes characters from either a character sequence, a character array
+	 * or a byte buffer, whichever is given, packing their codes into the
+	 * destination buffer through a 64-bit accumulator.
+	 * @param cs The sequence to read the characters from, or {@code null}
+	 * @param ca The array to read the characters from, or {@code null}
+	 * @param bb The buffer to read the characters from, or {@code null}
+	 * @param off The first index of the range
+	 * @param len The length of the range
+	 * @param dst The buffer to write the code bits to
+	 * @return Number of code bits written
+	 */
+	private long encode(CharSequence cs, char[] ca, ByteBuffer bb, int off, int len, ByteBuffer dst) {
+		if (isEmpty() || len == 0)
+			return 0;
+		long[] codes = tables().codes;
+		long start = metrics != null ? System.nanoTime() : 0;
+		int mark = dst.position();
+		long acc = 0;
+		int pending = 0;
+		long bits = 0;
+		try {
+			for (int i = off; i < off + len; ++i) {
+				char c = ca != null ? ca[i] : cs != null ? cs.charAt(i) : (char) (bb.get(i) & 0xFF);
+				c = Character.toLowerCase(c);
+				long code = c < codes.length ? codes[c] : -1;
+				if (code < 0)
+					throw new NoSuchElementException("Character not found in coding tree: " + c);
+				int n = (int) code & 63;
+				// Fewer than 8 bits are pending, so the code always fits
+				acc = acc << n | code >>> 6;
+				pending += n;
+				bits += n;
+				while (pending >= 8) {
+					pending -= 8;
+					dst.put((byte) (acc >>> pending));
+				}
+			}
+			if (pending > 0)
+				dst.put((byte) (acc << (8 - pending)));
+		}
+		catch (RuntimeException e) {
+			dst.position(mark);
+			throw e;
+		}
+		if (metrics != null)
+			metrics.encoded(len, bits, System.nanoTime() - start);
+		return bits;
+	}
+	
+	/**
+	 * Finds the specified character within the specified subtree.
+	 * @param c Character to look for
+	 * @param hn Subtree to look in
+	 * @return {@code HuffmanLeaf} Node containing the character ({@code null}
+	 * if not found)
+	 */
+	private HuffmanLeaf find(char c, HuffmanNode hn) {
+		if (hn == null)
+			return null;
+		if (hn instanceof HuffmanInternal) {
+			HuffmanInternal hi = (HuffmanInternal) hn;
+			HuffmanLeaf hl1 = find(c, hi.left());
+			if (hl1 != null && hl1.val() == c)
+				return hl1;
+			HuffmanLeaf hl2 = find(c, hi.right());
+			if (hl2 != null && hl2.val() == c)
+				return hl2;
+			else
+				return null;
+		}
+		else {
+			HuffmanLeaf hl = (HuffmanLeaf) hn;
+			if (hl.val() == c)
+				return hl;
+			else
+				return null;
+		}
+	}
+	
+	/**
+	 * Assigns a code to every leaf of the specified subtree, and numbers its
+	 * internal Nodes in preorder into the flattened child table.
+	 * @param hn Subtree to walk
+	 * @param code Code bits leading to the subtree
+	 * @param length Number of code bits leading to the subtree
+	 * @param next Next free internal Node number, shared across the walk
+	 * @param t The tables to fill in
+	 * @return Internal Node number of the subtree, or ~character for a leaf
+	 */
+	private static int flatten(HuffmanNode hn, long code, int length, int[] next, Tables t) {
+		if (hn instanceof HuffmanLeaf) {
+			t.codes[((HuffmanLeaf) hn).val()] = code << 6 | length;
+			return ~((HuffmanLeaf) hn).val();
+		}
+		if (length == MAX_CODE_LENGTH)
+			throw new IllegalStateException("Code longer than " + MAX_CODE_LENGTH + " bits");
+		HuffmanInternal hi = (HuffmanInternal) hn;
+		int i = next[0]++;
+		t.children[i << 1] = flatten(hi.left(), code << 1, length + 1, next, t);
+		t.children[i << 1 | 1] = flatten(hi.right(), code << 1 | 1, length + 1, next, t);
+		return i;
+	}
+	
+	/**
+	 * Derives the code and flattened child tables from the tree, unless they
+	 * already exist. The tables are filled in before being published, so
+	 * that other threads never see them partially filled, nor at all if the
+	 * tree cannot be flattened. Threads racing to derive them each publish
+	 * complete, identical tables.
+	 * @return The tables
+	 */
+	private Tables tables() {
+		Tables t = tables;
+		if (t != null)
+			return t;
+		int max = 0;
+		int leaves = 0;
+		// Iterative version, since Java does not optimize tail recursion
+		HuffmanNode[] stack = new HuffmanNode[64];
+		int top = 0;
+		stack[top++] = root;
+		while (top > 0) {
+			HuffmanNode hn = stack[--top];
+			if (hn instanceof HuffmanLeaf) {
+				max = Math.max(max, ((HuffmanLeaf) hn).val());
+				++leaves;
+			}
+			else {
+				if (top + 2 > stack.length)
+					stack = Arrays.copyOf(stack, 2 * stack.length);
+				stack[top++] = ((HuffmanInternal) hn).left();
+				stack[top++] = ((HuffmanInternal) hn).right();
+			}
+		}
+		t = new Tables(max, leaves);
+		flatten(root, 0, 0, new int[1], t);
+		tables = t;
+		return t;
+	}
+}
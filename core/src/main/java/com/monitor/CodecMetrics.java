@@ -0,0 +1,131 @@
+package com.monitor;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * JMX MBean recording the throughput of a Huffman codec. Thread-safe, so a
+ * single instance can be shared between codecs used by several threads.
+ * @author Benjamin Vial (29590765)
+ * @see CodecMetricsMBean, HuffmanTree
+ */
+public class CodecMetrics implements CodecMetricsMBean {
+	private final LongAdder decodeBits = new LongAdder(),
+				decodeNanos = new LongAdder(),
+				decodeSymbols = new LongAdder(),
+				encodeBits = new LongAdder(),
+				encodeNanos = new LongAdder(),
+				encodeSymbols = new LongAdder();
+	
+	/**
+	 * Registers the specified MBean with the platform MBean server.
+	 * @param name Name identifying the codec
+	 * @param cm The MBean to register
+	 * @return Name the MBean was registered under
+	 * @throws JMException If the MBean cannot be registered
+	 */
+	public static ObjectName register(String name, CodecMetrics cm) throws JMException {
+		ObjectName on = new ObjectName("com.tree:type=Codec,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(cm, on);
+		return on;
+	}
+	
+	/**
+	 * Records a decoding call.
+	 * @param bits Number of code bits consumed
+	 * @param symbols Number of symbols produced
+	 * @param nanos Time spent decoding, in nanoseconds
+	 */
+	public void decoded(long bits, long symbols, long nanos) {
+		decodeBits.add(bits);
+		decodeSymbols.add(symbols);
+		decodeNanos.add(nanos);
+	}
+	
+	/**
+	 * Records an encoding call.
+	 * @param symbols Number of symbols consumed
+	 * @param bits Number of code bits produced
+	 * @param nanos Time spent encoding, in nanoseconds
+	 */
+	public void encoded(long symbols, long bits, long nanos) {
+		encodeSymbols.add(symbols);
+		encodeBits.add(bits);
+		encodeNanos.add(nanos);
+	}
+	
+	/**
+	 * {@code CodecMetricsMBean} method override.
+	 */
+	@Override
+	public double getDecodeByteRate() {
+		return rate(decodeBits.sum(), decodeNanos.sum()) / 8;
+	}
+	
+	/**
+	 * {@code CodecMetricsMBean} method override.
+	 */
+	@Override
+	public long getDecodedBytes() {
+		return (decodeBits.sum() + 7) / 8;
+	}
+	
+	/**
+	 * {@code CodecMetricsMBean} method override.
+	 */
+	@Override
+	public long getDecodedSymbols() {
+		return decodeSymbols.sum();
+	}
+	
+	/**
+	 * {@code CodecMetricsMBean} method override.
+	 */
+	@Override
+	public double getDecodeSymbolRate() {
+		return rate(decodeSymbols.sum(), decodeNanos.sum());
+	}
+	
+	/**
+	 * {@code CodecMetricsMBean} method override.
+	 */
+	@Override
+	public double getEncodeByteRate() {
+		return rate(encodeBits.sum(), encodeNanos.sum()) / 8;
+	}
+	
+	/**
+	 * {@code CodecMetricsMBean} method override.
+	 */
+	@Override
+	public long getEncodedBytes() {
+		return (encodeBits.sum() + 7) / 8;
+	}
+	
+	/**
+	 * {@code CodecMetricsMBean} method override.
+	 */
+	@Override
+	public long getEncodedSymbols() {
+		return encodeSymbols.sum();
+	}
+	
+	/**
+	 * {@code CodecMetricsMBean} method override.
+	 */
+	@Override
+	public double getEncodeSymbolRate() {
+		return rate(encodeSymbols.sum(), encodeNanos.sum());
+	}
+	
+	/**
+	 * @param count Number of items processed
+	 * @param nanos Time spent, in nanoseconds
+	 * @return Items processed per second ({@code 0} if no time was spent)
+	 */
+	private static double rate(long count, long nanos) {
+		return nanos == 0 ? 0 : count * 1e9 / nanos;
+	}
+}
@@ -0,0 +1,48 @@
+package com.monitor;
+
+/**
+ * Management interface exposing the throughput of a Huffman codec over JMX.
+ * @author Benjamin Vial (29590765)
+ * @see CodecMetrics
+ */
+public interface CodecMetricsMBean {
+	/**
+	 * @return Bytes of code decoded per second of decoding time
+	 */
+	public double getDecodeByteRate();
+	
+	/**
+	 * @return Number of bytes of code consumed by decoding
+	 */
+	public long getDecodedBytes();
+	
+	/**
+	 * @return Number of symbols produced by decoding
+	 */
+	public long getDecodedSymbols();
+	
+	/**
+	 * @return Symbols decoded per second of decoding time
+	 */
+	public double getDecodeSymbolRate();
+	
+	/**
+	 * @return Bytes of code produced per second of encoding time
+	 */
+	public double getEncodeByteRate();
+	
+	/**
+	 * @return Number of bytes of code produced by encoding
+	 */
+	public long getEncodedBytes();
+	
+	/**
+	 * @return Number of symbols encoded
+	 */
+	public long getEncodedSymbols();
+	
+	/**
+	 * @return Symbols encoded per second of encoding time
+	 */
+	public double getEncodeSymbolRate();
+}
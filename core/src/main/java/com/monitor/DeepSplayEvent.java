@@ -0,0 +1,24 @@
+package com.monitor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted when a splay performs an unusually large
+ * number of rotations, which points at a degenerate access pattern.
+ * @author Benjamin Vial (29590765)
+ * @see SplayTree
+ */
+@Name("com.tree.DeepSplay")
+@Label("Deep Splay")
+@Category({ "Tree", "Splay" })
+@Description("Splay performing an unusually large number of rotations")
+public class DeepSplayEvent extends jdk.jfr.Event {
+	@Label("Rotations")
+	public int rotations;
+	
+	@Label("Semi-splay")
+	public boolean semi;
+}
@@ -0,0 +1,24 @@
+package com.monitor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted when a tree is built or rebuilt in bulk. Its
+ * duration covers the whole rebuild.
+ * @author Benjamin Vial (29590765)
+ * @see SplayTree, HuffmanTree
+ */
+@Name("com.tree.Rebuild")
+@Label("Tree Rebuild")
+@Category({ "Tree" })
+@Description("Bulk build or rebuild of a tree")
+public class RebuildEvent extends jdk.jfr.Event {
+	@Label("Tree")
+	public String tree;
+	
+	@Label("Nodes")
+	public int nodes;
+}
@@ -0,0 +1,144 @@
+package com.monitor;
+
+import com.splay.concurrent.ShardedSplayTree;
+import com.splay.opcount.OperationCounter;
+import com.tree.SearchTree;
+import java.lang.management.ManagementFactory;
+import java.util.function.IntSupplier;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * JMX MBean exposing the operation counts, size and height of a search tree.
+ * Operation counts are read from the tree's {@code OperationCounter}, while
+ * size and height are computed on demand by the specified suppliers, on the
+ * thread polling the MBean. Since that thread is never the one modifying the
+ * tree, the suppliers must take the lock guarding the tree, as the
+ * {@code register} methods do.
+ * @author Benjamin Vial (29590765)
+ * @see TreeMetricsMBean
+ */
+public class TreeMetrics implements TreeMetricsMBean {
+	private final IntSupplier height;
+	private final OperationCounter opcount;
+	private final IntSupplier size;
+	
+	/**
+	 * Constructor.
+	 * @param oc The operation counter to read counts from
+	 * @param size Supplier of the tree's size
+	 * @param height Supplier of the tree's height
+	 */
+	public TreeMetrics(OperationCounter oc, IntSupplier size, IntSupplier height) {
+		opcount = oc;
+		this.size = size;
+		this.height = height;
+	}
+	
+	/**
+	 * Registers an MBean for the specified thread-safe tree with the platform
+	 * MBean server. Its size and height are sampled under each shard's read
+	 * lock.
+	 * @param name Name identifying the tree
+	 * @param sst The tree to expose
+	 * @return Name the MBean was registered under
+	 * @throws JMException If the MBean cannot be registered
+	 */
+	public static ObjectName register(String name, ShardedSplayTree sst) throws JMException {
+		return register(name, new TreeMetrics(sst.counter(), sst::size, sst::height));
+	}
+	
+	/**
+	 * Registers an MBean for the specified tree with the platform MBean
+	 * server. The tree is not thread-safe, so its size and height are sampled
+	 * while holding the monitor of the given lock, which every thread
+	 * modifying the tree must hold as well.
+	 * @param name Name identifying the tree
+	 * @param st The tree to expose
+	 * @param lock The object whose monitor guards the tree
+	 * @return Name the MBean was registered under
+	 * @throws JMException If the MBean cannot be registered
+	 */
+	public static ObjectName register(String name, SearchTree st, Object lock) throws JMException {
+		IntSupplier size = () -> {
+			synchronized (lock) {
+				return st.size();
+			}
+		};
+		IntSupplier height = () -> {
+			synchronized (lock) {
+				return st.height();
+			}
+		};
+		return register(name, new TreeMetrics(st.counter(), size, height));
+	}
+	
+	/**
+	 * Registers the specified MBean with the platform MBean server.
+	 * @param name Name identifying the tree
+	 * @param tm The MBean to register
+	 * @return Name the MBean was registered under
+	 * @throws JMException If the MBean cannot be registered
+	 */
+	public static ObjectName register(String name, TreeMetrics tm) throws JMException {
+		ObjectName on = new ObjectName("com.tree:type=Tree,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(tm, on);
+		return on;
+	}
+	
+	/**
+	 * {@code TreeMetricsMBean} method override.
+	 */
+	@Override
+	public long getAdds() {
+		return opcount.adds();
+	}
+	
+	/**
+	 * {@code TreeMetricsMBean} method override.
+	 */
+	@Override
+	public long getCompares() {
+		return opcount.compares();
+	}
+	
+	/**
+	 * {@code TreeMetricsMBean} method override.
+	 */
+	@Override
+	public long getFinds() {
+		return opcount.finds();
+	}
+	
+	/**
+	 * {@code TreeMetricsMBean} method override.
+	 */
+	@Override
+	public int getHeight() {
+		return height.getAsInt();
+	}
+	
+	/**
+	 * {@code TreeMetricsMBean} method override.
+	 */
+	@Override
+	public long getParentChanges() {
+		return opcount.parentChanges();
+	}
+	
+	/**
+	 * {@code TreeMetricsMBean} method override.
+	 */
+	@Override
+	public long getRemoves() {
+		return opcount.removes();
+	}
+	
+	/**
+	 * {@code TreeMetricsMBean} method override.
+	 */
+	@Override
+	public int getSize() {
+		return size.getAsInt();
+	}
+}
@@ -0,0 +1,43 @@
+package com.monitor;
+
+/**
+ * Management interface exposing the metrics of a search tree over JMX.
+ * @author Benjamin Vial (29590765)
+ * @see TreeMetrics
+ */
+public interface TreeMetricsMBean {
+	/**
+	 * @return Number of add operations
+	 */
+	public long getAdds();
+	
+	/**
+	 * @return Number of compare operations
+	 */
+	public long getCompares();
+	
+	/**
+	 * @return Number of find operations
+	 */
+	public long getFinds();
+	
+	/**
+	 * @return Height of the tree
+	 */
+	public int getHeight();
+	
+	/**
+	 * @return Number of parent change operations
+	 */
+	public long getParentChanges();
+	
+	/**
+	 * @return Number of remove operations
+	 */
+	public long getRemoves();
+	
+	/**
+	 * @return Number of values in the tree
+	 */
+	public int getSize();
+}
@@ -0,0 +1,402 @@
+package com.optimal;
+
+import com.monitor.RebuildEvent;
+import com.splay.opcount.OperationCounter;
+import com.splay.opcount.OperationCounter.Operation;
+import com.splay.trace.OperationHandler;
+import com.splay.trace.TraceReader;
+import com.tree.BinaryTree;
+import com.tree.Traversal;
+import com.tree.TreeDumper;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Static, read-only binary search tree built offline from key access
+ * frequencies. Where {@code SplayTree} adapts to the access pattern as it
+ * goes, this tree is shaped once for a known distribution, using Mehlhorn's
+ * weight-balancing approximation: the root of every subtree is the key that
+ * best splits the subtree's total weight in half. The expected search cost is
+ * within a small additive constant of the entropy of the distribution, i.e.
+ * of the optimal tree, and the tree is built in O(n log n) time instead of
+ * the O(n^2) of the exact algorithm. Searches leave the tree untouched, so
+ * concurrent searches are safe as long as the counter allows it.
+ * @author Benjamin Vial (29590765)
+ * @see com.splay.SplayTree, com.huffman.HuffmanTree
+ */
+public class OptimalTree implements BinaryTree<Integer> {
+	private static final TreeDumper<OptimalNode> DUMPER = new TreeDumper<OptimalNode>() {
+		@Override
+		protected void label(OptimalNode on, Appendable out) throws IOException {
+			out.append(Integer.toString(on.key));
+		}
+		
+		@Override
+		protected OptimalNode left(OptimalNode on) {
+			return on.left;
+		}
+		
+		@Override
+		protected OptimalNode right(OptimalNode on) {
+			return on.right;
+		}
+	};
+	private static final long PROGRESS_INTERVAL = 1 << 16;
+	private final int count;
+	private final OperationCounter opcount;
+	private final OptimalNode root;
+	private final long total;
+	
+	/**
+	 * Accumulates key access frequencies, either one by one or from the finds
+	 * of a trace, then builds the tree they describe.
+	 */
+	public static class Builder implements OperationHandler {
+		private final Map<Integer, Long> weights = new HashMap<>();
+		
+		/**
+		 * Adds the specified weight to the given key, adding the key first if
+		 * necessary.
+		 * @param k The key to weigh
+		 * @param w The weight to add
+		 * @return This builder
+		 * @throws IllegalArgumentException If the weight is negative
+		 */
+		public Builder add(int k, long w) {
+			if (w < 0)
+				throw new IllegalArgumentException("Invalid weight: " + w);
+			weights.merge(k, w, Long::sum);
+			return this;
+		}
+		
+		/**
+		 * Builds the tree described by the accumulated frequencies, recording
+		 * its searches with a new counter.
+		 * @return Resulting tree
+		 */
+		public OptimalTree build() {
+			return build(new OperationCounter());
+		}
+		
+		/**
+		 * Builds the tree described by the accumulated frequencies, recording
+		 * its searches with the specified counter.
+		 * @param oc The operation counter to record searches with
+		 * @return Resulting tree
+		 */
+		public OptimalTree build(OperationCounter oc) {
+			int[] keys = new int[weights.size()];
+			int i = 0;
+			for (int k : weights.keySet())
+				keys[i++] = k;
+			Arrays.sort(keys);
+			long[] w = new long[keys.length];
+			for (i = 0; i < keys.length; ++i)
+				w[i] = weights.get(keys[i]);
+			return new OptimalTree(keys, w, oc);
+		}
+		
+		/**
+		 * Counts one access to the value of every find; other operations are
+		 * ignored.
+		 */
+		@Override
+		public void handle(char op, int n) {
+			if (op == 'f')
+				add(n, 1);
+		}
+	}
+	
+	/**
+	 * Optimal tree Node class. Holds a key and its weight, as well as pointers
+	 * to its left and right children.
+	 */
+	public static class OptimalNode implements IntNode {
+		private final int key;
+		private OptimalNode left;
+		private OptimalNode right;
+		private final long weight;
+		
+		/**
+		 * Constructor. Takes a key and its weight, and creates a leaf Node.
+		 * @param k Node key
+		 * @param w Key weight
+		 */
+		OptimalNode(int k, long w) {
+			key = k;
+			weight = w;
+		}
+		
+		/**
+		 * @return Left child
+		 */
+		public OptimalNode left() {
+			return left;
+		}
+		
+		/**
+		 * @return Right child
+		 */
+		public OptimalNode right() {
+			return right;
+		}
+		
+		/**
+		 * Used to display the Node's key, followed by its left and right
+		 * children (essentially a preorder traversal display).
+		 */
+		@Override
+		public String toString() {
+			return DUMPER.toString(this);
+		}
+		
+		/**
+		 * @return Node key
+		 */
+		@Override
+		public int val() {
+			return key;
+		}
+		
+		/**
+		 * @return Key weight
+		 */
+		public long weight() {
+			return weight;
+		}
+	}
+	
+	/**
+	 * Constructor. Builds the tree from the specified keys and weights.
+	 * @param keys The keys, in strictly increasing order
+	 * @param weights The weight of every key
+	 * @param oc The operation counter to record searches with
+	 * @throws IllegalArgumentException If the keys are not strictly
+	 *         increasing, or if a weight is negative
+	 */
+	private OptimalTree(int[] keys, long[] weights, OperationCounter oc) {
+		RebuildEvent re = new RebuildEvent();
+		re.begin();
+		// Prefix sums of the weights, so that any range is weighed at once
+		long[] prefix = new long[keys.length + 1];
+		for (int i = 0; i < keys.length; ++i) {
+			if (i > 0 && keys[i] <= keys[i - 1])
+				throw new IllegalArgumentException("Keys are not strictly increasing at index " + i);
+			if (weights[i] < 0)
+				throw new IllegalArgumentException("Invalid weight: " + weights[i]);
+			prefix[i + 1] = prefix[i] + weights[i];
+		}
+		count = keys.length;
+		opcount = oc;
+		total = prefix[keys.length];
+		root = link(keys, weights, prefix, 0, keys.length - 1);
+		if (re.shouldCommit()) {
+			re.tree = "optimal";
+			re.nodes = count;
+			re.commit();
+		}
+	}
+	
+	/**
+	 * Used to build a tree from given key and weight arrays, recording its
+	 * searches with a new counter.
+	 * @param keys The keys, in strictly increasing order
+	 * @param weights The weight of every key
+	 * @return Resulting tree
+	 * @throws IllegalArgumentException If the arrays differ in length, if the
+	 *         keys are not strictly increasing, or if a weight is negative
+	 */
+	public static OptimalTree build(int[] keys, long[] weights) {
+		if (keys.length != weights.length)
+			throw new IllegalArgumentException("Got " + keys.length + " keys but " + weights.length + " weights");
+		return new OptimalTree(keys, weights, new OperationCounter());
+	}
+	
+	/**
+	 * Used to build a tree weighing every key by the number of times it is
+	 * searched for in the operations defined in the file.
+	 * @param file The file to build the tree from
+	 * @return Resulting tree
+	 */
+	public static OptimalTree build(String file) {
+		System.out.print("Building optimal tree from '" + file + "'; processing line ");
+		Builder b = new Builder();
+		try {
+			new TraceReader(b, PROGRESS_INTERVAL).read(file);
+		}
+		catch (IOException e) {
+			System.out.println("Could not establish stream with file '" + file + "'");
+			System.exit(1);
+		}
+		OptimalTree ot = b.build();
+		System.out.println("all done!\n");
+		System.out.println("Expected compares per search: " + ot.cost());
+		return ot;
+	}
+	
+	/**
+	 * @return Expected number of compares of a successful search, drawn from
+	 * the weights the tree was built from ({@code 0} if every weight is zero)
+	 */
+	public double cost() {
+		return total == 0 ? 0 : (double) cost(root, 1) / total;
+	}
+	
+	/**
+	 * @return The operation counter recording this tree's searches
+	 */
+	public OperationCounter counter() {
+		return opcount;
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dump(Appendable out, Traversal t) throws IOException {
+		DUMPER.dump(root, t, out);
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dumpDot(Appendable out) throws IOException {
+		DUMPER.dumpDot(root, out);
+	}
+	
+	/**
+	 * Unboxing form of {@code find(int)}.
+	 * @param n The value to search for
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	@Override
+	public OptimalNode find(Integer n) {
+		return find(n.intValue());
+	}
+	
+	/**
+	 * Searches down the tree for the specified value.
+	 * @param n The value to search for
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	public OptimalNode find(int n) {
+		opcount.find();
+		long start = opcount.begin();
+		int depth = 0;
+		OptimalNode on = root;
+		while (on != null) {
+			opcount.compare();
+			if (on.key == n)
+				break;
+			on = n < on.key ? on.left : on.right;
+			++depth;
+		}
+		opcount.access(depth);
+		opcount.end(Operation.FIND, start);
+		return on;
+	}
+	
+	/**
+	 * @return Number of levels in the tree ({@code 0} if empty)
+	 */
+	public int height() {
+		return height(root);
+	}
+	
+	/**
+	 * @return {@code true} if the tree is empty, {@code false} otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+	
+	/**
+	 * @return Number of keys in the tree
+	 */
+	public int size() {
+		return count;
+	}
+	
+	/**
+	 * @return Output of the {@code OperationCounter}'s {@code stats()} method
+	 */
+	public String stats() {
+		return opcount.stats();
+	}
+	
+	/**
+	 * Used to display the tree's contents.
+	 */
+	@Override
+	public String toString() {
+		return DUMPER.toString(root);
+	}
+	
+	/**
+	 * Computes the weighted path length of the specified subtree.
+	 * @param on The subtree to weigh
+	 * @param depth Number of compares needed to reach the subtree's root
+	 * @return Sum of every key's weight times its number of compares
+	 */
+	private static long cost(OptimalNode on, int depth) {
+		if (on == null)
+			return 0;
+		return on.weight * depth + cost(on.left, depth + 1) + cost(on.right, depth + 1);
+	}
+	
+	/**
+	 * Computes the height of the specified subtree.
+	 * @param on The subtree to measure
+	 * @return Number of levels in the subtree ({@code 0} if empty)
+	 */
+	private static int height(OptimalNode on) {
+		if (on == null)
+			return 0;
+		return 1 + Math.max(height(on.left), height(on.right));
+	}
+	
+	/**
+	 * Links the specified range of keys into a weight-balanced subtree. The
+	 * root is the key whose left and right ranges are closest in weight,
+	 * found by binary search since the prefix sums are nondecreasing. A range
+	 * of weightless keys is split in the middle instead, so that keys never
+	 * accessed in the trace still end up balanced.
+	 * @param keys The keys, in order
+	 * @param weights The weight of every key
+	 * @param prefix The prefix sums of the weights
+	 * @param lo The first index of the range
+	 * @param hi The last index of the range
+	 * @return The root of the subtree ({@code null} if the range is empty)
+	 */
+	private static OptimalNode link(int[] keys, long[] weights, long[] prefix, int lo, int hi) {
+		if (lo > hi)
+			return null;
+		int r;
+		if (prefix[hi + 1] == prefix[lo])
+			r = (lo + hi) >>> 1;
+		else {
+			// Left weight prefix[r] - prefix[lo] against right weight
+			// prefix[hi + 1] - prefix[r + 1]: their difference grows with r
+			long target = prefix[lo] + prefix[hi + 1];
+			int a = lo, b = hi;
+			while (a < b) {
+				int mid = (a + b) >>> 1;
+				if (prefix[mid] + prefix[mid + 1] < target)
+					a = mid + 1;
+				else
+					b = mid;
+			}
+			r = a;
+			if (r > lo && target - (prefix[r - 1] + prefix[r]) < prefix[r] + prefix[r + 1] - target)
+				--r;
+		}
+		OptimalNode on = new OptimalNode(keys[r], weights[r]);
+		on.left = link(keys, weights, prefix, lo, r - 1);
+		on.right = link(keys, weights, prefix, r + 1, hi);
+		return on;
+	}
+}
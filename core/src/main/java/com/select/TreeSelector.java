@@ -0,0 +1,193 @@
+package com.select;
+
+import com.avl.AVLTree;
+import com.splay.SplayTree;
+import com.splay.opcount.OperationCounter;
+import com.splay.trace.OperationHandler;
+import com.splay.trace.TraceReader;
+import com.splay.trace.TraceReplayer;
+import com.tree.SearchTree;
+import java.io.IOException;
+import java.text.NumberFormat;
+import java.util.Arrays;
+
+/**
+ * Workload-driven tree selector. Samples the first operations of a stream,
+ * profiles them (read/write ratio, working set size, access skew and
+ * sequential runs), then replays the sample through every candidate tree and
+ * estimates each tree's cost from the compare and parent change counts of its
+ * {@code OperationCounter}. The cheapest tree is kept, and every subsequent
+ * operation is applied to it directly.
+ * @author Benjamin Vial (29590765)
+ * @see AVLTree, SplayTree
+ */
+public class TreeSelector implements OperationHandler {
+	public static final int DEFAULT_SAMPLE_SIZE = 1 << 16;
+	private static final long PROGRESS_INTERVAL = 1 << 16;
+	private int count;
+	private final int[] keys;
+	private final char[] ops;
+	private String profile;
+	private TraceReplayer replayer;
+	private SearchTree tree;
+	
+	/**
+	 * Default constructor. Samples the default number of operations.
+	 */
+	public TreeSelector() {
+		this(DEFAULT_SAMPLE_SIZE);
+	}
+	
+	/**
+	 * Constructor. Samples the specified number of operations.
+	 * @param n Number of operations to sample
+	 * @throws IllegalArgumentException If the sample size is not positive
+	 */
+	public TreeSelector(int n) {
+		if (n <= 0)
+			throw new IllegalArgumentException("Invalid sample size: " + n);
+		keys = new int[n];
+		ops = new char[n];
+	}
+	
+	/**
+	 * Used to build whichever tree suits the operations defined in the file.
+	 * @param file The file to build the tree from
+	 * @return Resulting tree
+	 */
+	public static SearchTree build(String file) {
+		System.out.print("Selecting and building tree from '" + file + "'; processing line ");
+		TreeSelector ts = new TreeSelector();
+		try {
+			new TraceReader(ts, PROGRESS_INTERVAL).read(file);
+		}
+		catch (IOException e) {
+			System.out.println("Could not establish stream with file '" + file + "'");
+			System.exit(1);
+		}
+		SearchTree st = ts.tree();
+		System.out.println("all done!\n");
+		System.out.println(ts.profile());
+		System.out.println(st.stats());
+		return st;
+	}
+	
+	/**
+	 * Buffers the operation while sampling, or applies it to the selected tree
+	 * once the sample is complete.
+	 */
+	@Override
+	public void handle(char op, int n) {
+		if (replayer != null) {
+			replayer.handle(op, n);
+			return;
+		}
+		ops[count] = op;
+		keys[count++] = n;
+		if (count == ops.length)
+			select();
+	}
+	
+	/**
+	 * @return Description of the sampled workload and of the estimated costs
+	 * ({@code null} until a tree has been selected)
+	 */
+	public String profile() {
+		return profile;
+	}
+	
+	/**
+	 * Selects a tree from the operations sampled so far if the sample is not
+	 * complete yet (e.g., the stream was shorter than the sample size).
+	 * @return The selected tree
+	 */
+	public SearchTree tree() {
+		if (tree == null)
+			select();
+		return tree;
+	}
+	
+	/**
+	 * Estimates the cost of a tree from its operation counter.
+	 * @param oc The operation counter to read from
+	 * @return Number of compares and parent changes
+	 */
+	private static long cost(OperationCounter oc) {
+		return oc.compares() + oc.parentChanges();
+	}
+	
+	/**
+	 * Profiles the sampled operations.
+	 * @param splay Estimated cost of the splay tree
+	 * @param avl Estimated cost of the AVL tree
+	 * @return Description of the sampled workload
+	 */
+	private String profile(long splay, long avl) {
+		NumberFormat nf = NumberFormat.getNumberInstance();
+		NumberFormat pf = NumberFormat.getPercentInstance();
+		pf.setMaximumFractionDigits(1);
+		int finds = 0, runs = 0;
+		for (int i = 0; i < count; ++i) {
+			if (ops[i] == 'f')
+				++finds;
+			// Neighbouring keys count as a sequential run
+			if (i > 0 && Math.abs((long) keys[i] - keys[i - 1]) <= 1)
+				++runs;
+		}
+		// Group equal keys to get their access frequencies
+		int[] sorted = Arrays.copyOf(keys, count);
+		Arrays.sort(sorted);
+		int[] freq = new int[count];
+		int distinct = 0;
+		for (int i = 0; i < count; ++i) {
+			if (i == 0 || sorted[i] != sorted[i - 1])
+				++distinct;
+			++freq[distinct - 1];
+		}
+		freq = Arrays.copyOf(freq, distinct);
+		Arrays.sort(freq);
+		// Share of accesses going to the most frequent tenth of the keys
+		int hot = 0;
+		for (int i = 0; i < Math.max(1, distinct / 10) && i < distinct; ++i)
+			hot += freq[distinct - 1 - i];
+		double n = Math.max(1, count);
+		StringBuilder sb = new StringBuilder();
+		sb.append("Sampled workload:\n");
+		sb.append("-----------------\n");
+		sb.append("Operations\t\t" + nf.format(count) + "\n");
+		sb.append("Find ratio\t\t" + pf.format(finds / n) + "\n");
+		sb.append("Working set\t\t" + nf.format(distinct) + "\n");
+		sb.append("Hot 10% share\t\t" + pf.format(hot / n) + "\n");
+		sb.append("Sequential\t\t" + pf.format(count > 1 ? runs / (n - 1) : 0) + "\n");
+		sb.append("Splay tree cost\t\t" + nf.format(splay) + "\n");
+		sb.append("AVL tree cost\t\t" + nf.format(avl) + "\n");
+		sb.append("Selected\t\t" + (tree instanceof SplayTree ? "splay" : "AVL") + " tree\n");
+		return sb.toString();
+	}
+	
+	/**
+	 * Replays the sample through every candidate tree, then keeps the one with
+	 * the lowest estimated cost.
+	 */
+	private void select() {
+		SplayTree splay = new SplayTree();
+		AVLTree avl = new AVLTree();
+		TraceReplayer rs = new TraceReplayer(splay);
+		TraceReplayer ra = new TraceReplayer(avl);
+		for (int i = 0; i < count; ++i) {
+			rs.handle(ops[i], keys[i]);
+			ra.handle(ops[i], keys[i]);
+		}
+		long cs = cost(splay.counter());
+		long ca = cost(avl.counter());
+		if (cs <= ca) {
+			tree = splay;
+			replayer = rs;
+		}
+		else {
+			tree = avl;
+			replayer = ra;
+		}
+		profile = profile(cs, ca);
+	}
+}
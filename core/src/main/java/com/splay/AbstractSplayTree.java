@@ -0,0 +1,620 @@
+package com.splay;
+
+import com.monitor.DeepSplayEvent;
+import com.splay.opcount.OperationCounter;
+import java.util.ArrayDeque;
+
+/**
+ * Splay algorithm shared by the splay tree implementations, independently of
+ * the type of their keys. Subclasses only provide a hand-specialized key
+ * comparison, through which primitive keys are never boxed, and rely on this
+ * class for searches, additions, rotations, splaying, joining and in-order
+ * navigation.
+ * @author Benjamin Vial (29590765)
+ * @param <N> Node type
+ * @see SplayTree, LongSplayTree, GenericSplayTree
+ */
+public abstract class AbstractSplayTree<N extends AbstractSplayTree.Node<N>> {
+	private static final int DEEP_SPLAY_ROTATIONS = 64;
+	final OperationCounter opcount;
+	final SplayPolicy policy;
+	N root;
+	
+	/**
+	 * Splay tree Node class, without its key. Contains a pointer to its left
+	 * and right children as well as to its parent.
+	 * @param <N> Node type
+	 */
+	public abstract static class Node<N extends Node<N>> {
+		N left;
+		N parent;
+		N right;
+		
+		/**
+		 * Constructor. Creates a detached Node.
+		 */
+		Node() { }
+		
+		/**
+		 * @return Left child
+		 */
+		public N left() {
+			return left;
+		}
+		
+		/**
+		 * @return Parent
+		 */
+		public N parent() {
+			return parent;
+		}
+		
+		/**
+		 * @return Right child
+		 */
+		public N right() {
+			return right;
+		}
+	}
+	
+	/**
+	 * Used to create a splay tree around an existing, detached subtree.
+	 * @param sp The splay policy to apply on accesses
+	 * @param oc The operation counter to record operations with
+	 * @param sn The root of the subtree ({@code null} for an empty tree)
+	 */
+	AbstractSplayTree(SplayPolicy sp, OperationCounter oc, N sn) {
+		opcount = oc;
+		policy = sp;
+		root = sn;
+	}
+	
+	/**
+	 * @return The operation counter recording this tree's operations
+	 */
+	public OperationCounter counter() {
+		return opcount;
+	}
+	
+	/**
+	 * Measures the depth of the specified Node by following its parents, so
+	 * that a Node returned by an earlier search can be checked for membership
+	 * once the tree may have changed.
+	 * @param sn The Node to measure
+	 * @return Depth of the Node (the root has depth 0), or {@code -1} if it
+	 * is not in this tree
+	 */
+	public int depth(N sn) {
+		int depth = 0;
+		for (; sn.parent() != null; sn = sn.parent())
+			++depth;
+		return sn == root ? depth : -1;
+	}
+	
+	/**
+	 * Measures the height of the tree with a level-order traversal, rather
+	 * than by recursing. Runs in linear time.
+	 * @return Number of levels in the tree ({@code 0} if empty)
+	 */
+	public int height() {
+		if (root == null)
+			return 0;
+		ArrayDeque<N> level = new ArrayDeque<>();
+		level.add(root);
+		int height = 0;
+		while (!level.isEmpty()) {
+			++height;
+			for (int i = level.size(); i > 0; --i) {
+				N sn = level.poll();
+				if (sn.left() != null)
+					level.add(sn.left());
+				if (sn.right() != null)
+					level.add(sn.right());
+			}
+		}
+		return height;
+	}
+	
+	/**
+	 * @return {@code true} if the tree is empty, {@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		return root == null;
+	}
+	
+	/**
+	 * @return The splay policy applied on accesses
+	 */
+	public SplayPolicy policy() {
+		return policy;
+	}
+	
+	/**
+	 * Counts the Nodes of the tree by following the in-order successors,
+	 * rather than recursing. Runs in linear time.
+	 * @return Number of values in the tree
+	 */
+	public int size() {
+		int count = 0;
+		for (N sn = findMin(root); sn != null; sn = successor(sn))
+			++count;
+		return count;
+	}
+	
+	/**
+	 * @return Output of the {@code OperationCounter}'s {@code stats()} method
+	 */
+	public String stats() {
+		return opcount.stats();
+	}
+	
+	/**
+	 * Records an access at the specified depth, then splays the last visited
+	 * Node of a search to the top of the tree (or semi-splays it) if the given
+	 * policy says so.
+	 * @param sn The last visited Node
+	 * @param depth Depth of the Node
+	 * @param sp The splay policy to apply
+	 */
+	void access(N sn, int depth, SplayPolicy sp) {
+		opcount.access(depth);
+		if (sp.shouldSplay(depth)) {
+			if (sp.isSemi())
+				semiSplay(sn);
+			else
+				splay(sn);
+		}
+	}
+	
+	/**
+	 * Compares the specified key with the key of the given Node. Primitive
+	 * keys are passed widened to a long, so that they are never boxed; other
+	 * keys are passed as an object, and the long is then ignored.
+	 * @param k The primitive key
+	 * @param o The object key ({@code null} for primitive keys)
+	 * @param sn The Node to compare the key with
+	 * @return A negative integer, zero, or a positive integer as the key is
+	 * less than, equal to, or greater than the Node's key
+	 */
+	abstract int compare(long k, Object o, N sn);
+	
+	/**
+	 * Emits a Flight Recorder event for a splay performing an unusually large
+	 * number of rotations.
+	 * @param rotations Number of rotations performed
+	 * @param semi Whether the splay was a semi-splay
+	 */
+	private static void deepSplay(int rotations, boolean semi) {
+		DeepSplayEvent dse = new DeepSplayEvent();
+		if (dse.shouldCommit()) {
+			dse.rotations = rotations;
+			dse.semi = semi;
+			dse.commit();
+		}
+	}
+	
+	/**
+	 * Detaches the specified Node, which must have been splayed to the top of
+	 * the tree, and joins its subtrees back together.
+	 * @param rt The root Node to detach
+	 */
+	void detach(N rt) {
+		N left = rt.left();
+		N right = rt.right();
+		setLeft(rt, null);
+		setRight(rt, null);
+		if (left != null)
+			setParent(left, null);
+		if (right != null)
+			setParent(right, null);
+		join(left, right);
+	}
+	
+	/**
+	 * Finds the specified key by searching down the tree, then splays it to
+	 * the top of the tree if the given policy says so. If it cannot be found,
+	 * the last visited Node is splayed instead.
+	 * @param k The primitive key to search for
+	 * @param o The object key to search for ({@code null} for primitive keys)
+	 * @param sp The splay policy to apply
+	 * @return The Node containing the key ({@code null} if not found)
+	 */
+	N find(long k, Object o, SplayPolicy sp) {
+		N sn = root;
+		if (sn == null)
+			return null;
+		N rt = null;
+		int depth = 0;
+		// Iterative version, since Java does not optimize tail recursion
+		while (true) {
+			opcount.compare();
+			int c = compare(k, o, sn);
+			// Key was found
+			if (c == 0) {
+				rt = sn;
+				break;
+			}
+			N next = c < 0 ? sn.left() : sn.right();
+			if (next == null)
+				break;
+			sn = next;
+			++depth;
+		}
+		access(sn, depth, sp);
+		return rt;
+	}
+	
+	/**
+	 * Finds, but does not splay, the maximum value in a given subtree.
+	 * @param sn The subtree to search through
+	 * @return The Node containing the value
+	 */
+	N findMax(N sn) {
+		if (sn == null)
+			return null;
+		while (sn.right() != null) {
+			sn = sn.right();
+		}
+		return sn;
+	}
+	
+	/**
+	 * Finds, but does not splay, the minimum value in a given subtree.
+	 * @param sn The subtree to search through
+	 * @return The Node containing the value
+	 */
+	N findMin(N sn) {
+		if (sn == null)
+			return null;
+		while (sn.left() != null) {
+			sn = sn.left();
+		}
+		return sn;
+	}
+	
+	/**
+	 * Adds the specified detached Node by searching down the tree for a
+	 * suitable location, after any Node holding the same key, then splays it
+	 * to the top of the tree.
+	 * @param nn The Node to add
+	 * @param k The primitive key of the Node
+	 * @param o The object key of the Node ({@code null} for primitive keys)
+	 * @return The added Node
+	 */
+	N insert(N nn, long k, Object o) {
+		N sn = root;
+		if (sn == null) {
+			root = nn;
+			return nn;
+		}
+		int depth = 1;
+		// Iterative version, since Java does not optimize tail recursion
+		while (true) {
+			opcount.compare();
+			boolean left = compare(k, o, sn) < 0;
+			N next = left ? sn.left() : sn.right();
+			if (next == null) {
+				if (left)
+					setLeft(sn, nn);
+				else
+					setRight(sn, nn);
+				break;
+			}
+			sn = next;
+			++depth;
+		}
+		opcount.access(depth);
+		return splay(nn);
+	}
+	
+	/**
+	 * Joins two detached subtrees under a single root, assuming every value
+	 * of the left subtree is no greater than every value of the right one.
+	 * The maximum of the left subtree is splayed to the top, and the right
+	 * subtree is attached as its right child.
+	 * @param left The left subtree
+	 * @param right The right subtree
+	 */
+	void join(N left, N right) {
+		if (left == null) {
+			root = right;
+			return;
+		}
+		root = left;
+		splay(findMax(left));
+		setRight(root, right);
+		update(root);
+	}
+	
+	/**
+	 * Links the specified range of in-order Nodes into a balanced subtree.
+	 * @param nodes The Nodes to link, in order
+	 * @param lo The first index of the range
+	 * @param hi The last index of the range
+	 * @return The root of the subtree ({@code null} if the range is empty)
+	 */
+	N link(N[] nodes, int lo, int hi) {
+		if (lo > hi)
+			return null;
+		int mid = (lo + hi) >>> 1;
+		N sn = nodes[mid];
+		setLeft(sn, link(nodes, lo, mid - 1));
+		setRight(sn, link(nodes, mid + 1, hi));
+		update(sn);
+		return sn;
+	}
+	
+	/**
+	 * Finds, but does not splay, the in-order predecessor of a given Node.
+	 * @param sn The Node to start from
+	 * @return The previous Node in order ({@code null} if there is none)
+	 */
+	N predecessor(N sn) {
+		if (sn.left() != null)
+			return findMax(sn.left());
+		while (sn.parent() != null && sn.parent().left() == sn)
+			sn = sn.parent();
+		return sn.parent();
+	}
+	
+	/**
+	 * Searches for the specified key without splaying, leaving the tree
+	 * untouched so that concurrent searches are safe, and returns the Node
+	 * the search ended on, which holds the key if it was found.
+	 * @param k The primitive key to search for
+	 * @param o The object key to search for ({@code null} for primitive keys)
+	 * @return The last visited Node ({@code null} if the tree is empty)
+	 */
+	N probe(long k, Object o) {
+		N sn = root;
+		if (sn == null)
+			return null;
+		int depth = 0;
+		while (true) {
+			opcount.compare();
+			int c = compare(k, o, sn);
+			if (c == 0)
+				break;
+			N next = c < 0 ? sn.left() : sn.right();
+			if (next == null)
+				break;
+			sn = next;
+			++depth;
+		}
+		opcount.access(depth);
+		return sn;
+	}
+	
+	/**
+	 * Rotates the specified Node above its parent, updating the root or the
+	 * grandparent as needed.
+	 * @param sn The Node to rotate
+	 */
+	private void rotate(N sn) {
+		N parent = sn.parent();
+		N grandparent = parent.parent();
+		opcount.compare();
+		// Rotate right
+		if (parent.left() == sn) {
+			setLeft(parent, sn.right());
+			setRight(sn, parent);
+		}
+		// Rotate left
+		else {
+			setRight(parent, sn.left());
+			setLeft(sn, parent);
+		}
+		update(parent);
+		update(sn);
+		if (grandparent == null) {
+			setParent(sn, null);
+			root = sn;
+		}
+		else if (grandparent.left() == parent)
+			setLeft(grandparent, sn);
+		else
+			setRight(grandparent, sn);
+	}
+	
+	/**
+	 * Searches for the specified key without splaying, leaving the tree
+	 * untouched so that concurrent searches are safe.
+	 * @param k The primitive key to search for
+	 * @param o The object key to search for ({@code null} for primitive keys)
+	 * @return Depth of the Node containing the key, or {@code -1 - depth} of
+	 * the last visited Node if not found ({@code -1} if the tree is empty)
+	 */
+	int search(long k, Object o) {
+		N sn = probe(k, o);
+		if (sn == null)
+			return -1;
+		int depth = depth(sn);
+		return compare(k, o, sn) == 0 ? depth : -1 - depth;
+	}
+	
+	
+	/**
+	 * Brings the specified Node closer to the top of the tree by semi-splaying
+	 * it: in the zig-zig case, only the parent is rotated and splaying carries
+	 * on from the parent, which roughly halves the depth of the access path
+	 * with fewer rotations than a full splay.
+	 * @param sn The Node to semi-splay
+	 * @return The semi-splayed Node
+	 */
+	N semiSplay(N sn) {
+		N it = sn;
+		int rotations = 0;
+		while (it.parent() != null) {
+			N parent = it.parent();
+			N grandparent = parent.parent();
+			// Zig
+			if (grandparent == null) {
+				rotate(it);
+				++rotations;
+				break;
+			}
+			opcount.compare();
+			// Zig-zig, rotating the parent only
+			if ((parent.left() == it) == (grandparent.left() == parent)) {
+				rotate(parent);
+				it = parent;
+				++rotations;
+			}
+			// Zig-zag
+			else {
+				rotate(it);
+				rotate(it);
+				rotations += 2;
+			}
+		}
+		opcount.splay(rotations);
+		if (rotations >= DEEP_SPLAY_ROTATIONS)
+			deepSplay(rotations, true);
+		return sn;
+	}
+	
+	/**
+	 * Sets the left child of a Node, also setting the child's parent pointer
+	 * if necessary.
+	 * @param sn The parent Node
+	 * @param child New left child
+	 */
+	void setLeft(N sn, N child) {
+		sn.left = child;
+		if (child != null)
+			setParent(child, sn);
+	}
+	
+	/**
+	 * Sets the parent of a Node.
+	 * @param sn The child Node
+	 * @param parent New parent
+	 */
+	void setParent(N sn, N parent) {
+		opcount.parentChange();
+		sn.parent = parent;
+	}
+	
+	/**
+	 * Sets the right child of a Node, also setting the child's parent pointer
+	 * if necessary.
+	 * @param sn The parent Node
+	 * @param child New right child
+	 */
+	void setRight(N sn, N child) {
+		sn.right = child;
+		if (child != null)
+			setParent(child, sn);
+	}
+	
+	/**
+	 * Brings the specified Node to the top of the tree by performing a chain
+	 * of rotations. Rotation directions are taken from the child pointers
+	 * rather than from the Node values, so that duplicate values are handled.
+	 * @param sn The Node to splay
+	 * @return The splayed Node
+	 */
+	N splay(N sn) {
+		int rotations = 0;
+		// Iterative version, since Java does not optimize tail recursion
+		while (sn.parent() != null) {
+			N parent = sn.parent();
+			if (root == parent) {
+				opcount.compare();
+				// Zig right
+				if (parent.left() == sn) {
+					setLeft(parent, sn.right());
+					setRight(sn, parent);
+				}
+				// Zig left
+				else {
+					setRight(parent, sn.left());
+					setLeft(sn, parent);
+				}
+				update(parent);
+				update(sn);
+				setParent(sn, null);
+				// Update the root
+				root = sn;
+				++rotations;
+			}
+			else {
+				N grandparent = parent.parent();
+				N greatgrandparent = grandparent.parent();
+				opcount.compare();
+				opcount.compare();
+				boolean snLeft = parent.left() == sn;
+				boolean parentLeft = grandparent.left() == parent;
+				// Zig-zig right
+				if (snLeft && parentLeft) {
+					setLeft(grandparent, parent.right());
+					setLeft(parent, sn.right());
+					setRight(parent, grandparent);
+					setRight(sn, parent);
+				}
+				// Zig-zig left
+				else if (!snLeft && !parentLeft) {
+					setRight(grandparent, parent.left());
+					setLeft(parent, grandparent);
+					setRight(parent, sn.left());
+					setLeft(sn, parent);
+				}
+				// Zig-zag left
+				else if (snLeft) {
+					setRight(grandparent, sn.left());
+					setLeft(parent, sn.right());
+					setLeft(sn, grandparent);
+					setRight(sn, parent);
+				}
+				// Zig-zag right
+				else {
+					setLeft(grandparent, sn.right());
+					setRight(parent, sn.left());
+					setLeft(sn, parent);
+					setRight(sn, grandparent);
+				}
+				update(grandparent);
+				update(parent);
+				update(sn);
+				rotations += 2;
+				// Update root, or great-grandparent
+				if (root == grandparent) {
+					setParent(sn, null);
+					root = sn;
+				}
+				else {
+					opcount.compare();
+					if (greatgrandparent.left() == grandparent)
+						setLeft(greatgrandparent, sn);
+					else
+						setRight(greatgrandparent, sn);
+				}
+			}
+		}
+		opcount.splay(rotations);
+		if (rotations >= DEEP_SPLAY_ROTATIONS)
+			deepSplay(rotations, false);
+		return sn;
+	}
+	
+	/**
+	 * Called whenever the children of the specified Node change, bottom-up,
+	 * so that subclasses can maintain subtree aggregates through rotations.
+	 * Does nothing by default.
+	 * @param sn The Node whose subtree changed
+	 */
+	void update(N sn) { }
+	
+	/**
+	 * Finds, but does not splay, the in-order successor of a given Node.
+	 * @param sn The Node to start from
+	 * @return The next Node in order ({@code null} if there is none)
+	 */
+	N successor(N sn) {
+		if (sn.right() != null)
+			return findMin(sn.right());
+		while (sn.parent() != null && sn.parent().right() == sn)
+			sn = sn.parent();
+		return sn.parent();
+	}
+}
@@ -0,0 +1,433 @@
+package com.splay;
+
+import com.splay.opcount.OperationCounter;
+import com.splay.opcount.OperationCounter.Operation;
+import com.tree.BinaryTree;
+import com.tree.Traversal;
+import com.tree.TreeDumper;
+import java.io.IOException;
+
+/**
+ * Splay tree mapping integer keys to long values, whose Nodes keep an
+ * aggregate of the values in their subtree, computed by a pluggable
+ * {@code Monoid}. The aggregates are recomputed bottom-up by the
+ * {@code update} hook whenever a rotation, an addition or a removal changes a
+ * Node's children, so the aggregate over any key range is answered in
+ * amortized O(log n) by splaying the range's neighbours so that the range
+ * becomes a single subtree. Like {@code SplayTree}, duplicate keys are
+ * allowed.
+ * @author Benjamin Vial (29590765)
+ * @param <A> Aggregate type
+ * @see SplayTree, Aggregate#MONOID
+ */
+public class AggregateSplayTree<A> extends AbstractSplayTree<AggregateSplayTree.AggregateNode<A>> implements BinaryTree<Integer> {
+	private static final TreeDumper<AggregateNode<?>> DUMPER = new TreeDumper<AggregateNode<?>>() {
+		@Override
+		protected void label(AggregateNode<?> an, Appendable out) throws IOException {
+			out.append(Integer.toString(an.key)).append('=').append(Long.toString(an.value));
+		}
+		
+		@Override
+		protected AggregateNode<?> left(AggregateNode<?> an) {
+			return an.left();
+		}
+		
+		@Override
+		protected AggregateNode<?> right(AggregateNode<?> an) {
+			return an.right();
+		}
+	};
+	private final Monoid<A> monoid;
+	
+	/**
+	 * Aggregate of the values within a key range: their count, sum, minimum
+	 * and maximum. The minimum and maximum of an empty range are
+	 * {@code Long.MAX_VALUE} and {@code Long.MIN_VALUE} respectively.
+	 */
+	public static final class Aggregate {
+		private static final Aggregate EMPTY = new Aggregate(0, 0, Long.MAX_VALUE, Long.MIN_VALUE);
+		/**
+		 * Count, sum, minimum and maximum monoid.
+		 */
+		public static final Monoid<Aggregate> MONOID = new Monoid<Aggregate>() {
+			@Override
+			public Aggregate combine(Aggregate a, Aggregate b) {
+				return new Aggregate(a.count + b.count, a.sum + b.sum, Math.min(a.min, b.min),
+						Math.max(a.max, b.max));
+			}
+			
+			@Override
+			public Aggregate identity() {
+				return EMPTY;
+			}
+			
+			@Override
+			public Aggregate of(long v) {
+				return new Aggregate(1, v, v, v);
+			}
+		};
+		private final int count;
+		private final long max;
+		private final long min;
+		private final long sum;
+		
+		/**
+		 * Constructor.
+		 * @param count Number of values
+		 * @param sum Sum of the values
+		 * @param min Minimum value
+		 * @param max Maximum value
+		 */
+		private Aggregate(int count, long sum, long min, long max) {
+			this.count = count;
+			this.sum = sum;
+			this.min = min;
+			this.max = max;
+		}
+		
+		/**
+		 * @return Number of values
+		 */
+		public int count() {
+			return count;
+		}
+		
+		/**
+		 * @return Maximum value
+		 */
+		public long max() {
+			return max;
+		}
+		
+		/**
+		 * @return Minimum value
+		 */
+		public long min() {
+			return min;
+		}
+		
+		/**
+		 * @return Sum of the values, wrapping around on overflow
+		 */
+		public long sum() {
+			return sum;
+		}
+		
+		/**
+		 * Used to display the aggregate.
+		 */
+		@Override
+		public String toString() {
+			return "count=" + count + " sum=" + sum + " min=" + min + " max=" + max;
+		}
+	}
+	
+	/**
+	 * Aggregate splay tree Node class. Holds a key, its value, the number of
+	 * Nodes in its subtree and their aggregate, as well as pointers to its
+	 * left and right children and to its parent.
+	 * @param <A> Aggregate type
+	 */
+	public static class AggregateNode<A> extends Node<AggregateNode<A>> implements IntNode {
+		private A aggregate;
+		private int count;
+		private final int key;
+		// Aggregate of the Node's own value, combined with its children's
+		private final A single;
+		private final long value;
+		
+		/**
+		 * Constructor. Takes a key, its value and the value's aggregate, and
+		 * creates a detached Node.
+		 * @param k Node key
+		 * @param v Node value
+		 * @param a Aggregate of the value alone
+		 */
+		AggregateNode(int k, long v, A a) {
+			key = k;
+			value = v;
+			single = a;
+			aggregate = a;
+			count = 1;
+		}
+		
+		/**
+		 * Used to display the Node's key and value, followed by its left and
+		 * right children (essentially a preorder traversal display).
+		 */
+		@Override
+		public String toString() {
+			return DUMPER.toString(this);
+		}
+		
+		/**
+		 * @return Node key
+		 */
+		@Override
+		public int val() {
+			return key;
+		}
+		
+		/**
+		 * @return Value mapped to the Node key
+		 */
+		public long value() {
+			return value;
+		}
+	}
+	
+	/**
+	 * Monoid over aggregates. Combining must be associative, and the identity
+	 * must leave any aggregate unchanged; combining need not be commutative,
+	 * since aggregates are always combined in key order.
+	 * @param <A> Aggregate type
+	 */
+	public interface Monoid<A> {
+		/**
+		 * @param a The aggregate of the lower keys
+		 * @param b The aggregate of the upper keys
+		 * @return The aggregate of both
+		 */
+		public A combine(A a, A b);
+		
+		/**
+		 * @return The aggregate of an empty range
+		 */
+		public A identity();
+		
+		/**
+		 * @param v A single value
+		 * @return The aggregate of the value alone
+		 */
+		public A of(long v);
+	}
+	
+	/**
+	 * Used to create an empty tree, aggregating values with the specified
+	 * monoid.
+	 * @param m The monoid to aggregate values with
+	 */
+	public AggregateSplayTree(Monoid<A> m) {
+		this(m, SplayPolicy.ALWAYS, new OperationCounter());
+	}
+	
+	/**
+	 * Used to create an empty tree, aggregating values with the specified
+	 * monoid, restructuring itself on lookups according to the specified
+	 * policy and recording its operations with the specified counter.
+	 * @param m The monoid to aggregate values with
+	 * @param sp The splay policy to apply on lookups
+	 * @param oc The operation counter to record operations with
+	 */
+	public AggregateSplayTree(Monoid<A> m, SplayPolicy sp, OperationCounter oc) {
+		super(sp, oc, null);
+		monoid = m;
+	}
+	
+	/**
+	 * Adds the specified key, mapped to the given value, by searching down the
+	 * tree for a suitable location, then splays it to the top of the tree.
+	 * @param k The key to add
+	 * @param v The value to map the key to
+	 * @return The added Node
+	 */
+	public AggregateNode<A> add(int k, long v) {
+		opcount.add();
+		long start = opcount.begin();
+		// Splaying the new Node updates every ancestor on its way up
+		AggregateNode<A> rt = insert(new AggregateNode<>(k, v, monoid.of(v)), k, null);
+		opcount.end(Operation.ADD, start);
+		return rt;
+	}
+	
+	/**
+	 * Computes the aggregate of the values whose keys lie within the
+	 * specified inclusive range. The greatest Node below the
+	 * range and the least Node above it are splayed so that the range becomes
+	 * a single subtree, whose aggregates are then read off its root. The last
+	 * Node visited by each of the two searches is splayed as well, so that
+	 * the searches are paid for even if the range has no neighbour.
+	 * @param lo The lower bound of the range
+	 * @param hi The upper bound of the range
+	 * @return The aggregate of the range ({@code identity()} if it is empty)
+	 * @throws IllegalArgumentException If the lower bound is greater than the
+	 *         upper bound
+	 */
+	public A aggregate(int lo, int hi) {
+		if (lo > hi)
+			throw new IllegalArgumentException("Invalid range: [" + lo + ", " + hi + "]");
+		if (root == null)
+			return monoid.identity();
+		AggregateNode<A> below = null;
+		AggregateNode<A> above = null;
+		// Last Node in order whose key is less than the lower bound
+		AggregateNode<A> it = root;
+		while (true) {
+			opcount.compare();
+			AggregateNode<A> next;
+			if (it.key < lo) {
+				below = it;
+				next = it.right();
+			}
+			else
+				next = it.left();
+			if (next == null)
+				break;
+			it = next;
+		}
+		// Splaying the deepest Node of each descent pays for the descent,
+		// even when neither neighbour of the range is splayed afterwards
+		splay(it);
+		// First Node in order whose key is greater than the upper bound
+		it = root;
+		while (true) {
+			opcount.compare();
+			AggregateNode<A> next;
+			if (it.key > hi) {
+				above = it;
+				next = it.left();
+			}
+			else
+				next = it.right();
+			if (next == null)
+				break;
+			it = next;
+		}
+		splay(it);
+		if (below == null && above == null)
+			return aggregate(root);
+		if (below == null) {
+			splay(above);
+			return aggregate(above.left());
+		}
+		if (above == null) {
+			splay(below);
+			return aggregate(below.right());
+		}
+		splay(above);
+		// Splay the lower neighbour within the detached left subtree, so that
+		// the range is exactly its right subtree
+		AggregateNode<A> left = above.left();
+		setLeft(above, null);
+		setParent(left, null);
+		root = left;
+		splay(below);
+		A rt = aggregate(below.right());
+		setLeft(above, root);
+		root = above;
+		return rt;
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dump(Appendable out, Traversal t) throws IOException {
+		DUMPER.dump(root, t, out);
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dumpDot(Appendable out) throws IOException {
+		DUMPER.dumpDot(root, out);
+	}
+	
+	/**
+	 * Unboxing form of {@code find(int)}.
+	 * @param k The key to search for
+	 * @return The Node containing the key ({@code null} if not found)
+	 */
+	@Override
+	public AggregateNode<A> find(Integer k) {
+		return find(k.intValue());
+	}
+	
+	/**
+	 * Finds the specified key by searching down the tree, then splays it to
+	 * the top of the tree if the policy says so. If it cannot be found, the
+	 * last visited Node is splayed instead.
+	 * @param k The key to search for
+	 * @return The Node containing the key ({@code null} if not found)
+	 */
+	public AggregateNode<A> find(int k) {
+		opcount.find();
+		long start = opcount.begin();
+		AggregateNode<A> rt = find(k, null, policy);
+		opcount.end(Operation.FIND, start);
+		return rt;
+	}
+	
+	/**
+	 * Removes one occurrence of the specified key after splaying it to the top
+	 * of the tree.
+	 * @param k The key to remove
+	 * @return The removed Node ({@code null} if not found)
+	 */
+	public AggregateNode<A> remove(int k) {
+		opcount.remove();
+		long start = opcount.begin();
+		AggregateNode<A> rt = find(k, null, SplayPolicy.ALWAYS);
+		if (rt != null)
+			detach(rt);
+		opcount.end(Operation.REMOVE, start);
+		return rt;
+	}
+	
+	/**
+	 * @return Number of keys, in constant time
+	 */
+	@Override
+	public int size() {
+		return root == null ? 0 : root.count;
+	}
+	
+	/**
+	 * Used to display the tree's keys and values.
+	 */
+	@Override
+	public String toString() {
+		return DUMPER.toString(root);
+	}
+	
+	/**
+	 * {@code AbstractSplayTree<N>} method override.
+	 */
+	@Override
+	int compare(long k, Object o, AggregateNode<A> sn) {
+		return Integer.compare((int) k, sn.key);
+	}
+	
+	/**
+	 * Recomputes the size and aggregate of the specified Node's subtree from
+	 * its value and its children's, in key order.
+	 * @param an The Node whose subtree changed
+	 */
+	@Override
+	void update(AggregateNode<A> an) {
+		int count = 1;
+		A a = an.single;
+		AggregateNode<A> left = an.left();
+		if (left != null) {
+			count += left.count;
+			a = monoid.combine(left.aggregate, a);
+		}
+		AggregateNode<A> right = an.right();
+		if (right != null) {
+			count += right.count;
+			a = monoid.combine(a, right.aggregate);
+		}
+		an.count = count;
+		an.aggregate = a;
+	}
+	
+	/**
+	 * Reads the aggregate off the specified subtree.
+	 * @param an The root of the subtree
+	 * @return The aggregate of the subtree
+	 */
+	private A aggregate(AggregateNode<A> an) {
+		return an == null ? monoid.identity() : an.aggregate;
+	}
+}
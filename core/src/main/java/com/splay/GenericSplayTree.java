@@ -0,0 +1,203 @@
+package com.splay;
+
+import com.splay.opcount.OperationCounter;
+import com.splay.opcount.OperationCounter.Operation;
+import com.tree.BinaryTree;
+import com.tree.Traversal;
+import com.tree.TreeDumper;
+import java.io.IOException;
+import java.util.Comparator;
+
+/**
+ * Splay tree over arbitrary keys, ordered by a comparator (or by their
+ * natural ordering). Shares its splay algorithm with {@code SplayTree} and
+ * {@code LongSplayTree}, which should be preferred for primitive keys.
+ * @author Benjamin Vial (29590765)
+ * @param <K> Key type
+ * @see SplayTree, LongSplayTree
+ */
+public class GenericSplayTree<K> extends AbstractSplayTree<GenericSplayTree.GenericSplayNode<K>> implements BinaryTree<K> {
+	private static final TreeDumper<GenericSplayNode<?>> DUMPER = new TreeDumper<GenericSplayNode<?>>() {
+		@Override
+		protected void label(GenericSplayNode<?> gn, Appendable out) throws IOException {
+			out.append(String.valueOf(gn.val()));
+		}
+		
+		@Override
+		protected GenericSplayNode<?> left(GenericSplayNode<?> gn) {
+			return gn.left();
+		}
+		
+		@Override
+		protected GenericSplayNode<?> right(GenericSplayNode<?> gn) {
+			return gn.right();
+		}
+	};
+	private final Comparator<? super K> comparator;
+	
+	/**
+	 * Generic splay tree Node class. Contains a pointer to its left and right
+	 * children as well as to its parent.
+	 * @param <K> Key type
+	 */
+	public static class GenericSplayNode<K> extends Node<GenericSplayNode<K>> implements BinaryNode<K> {
+		private final K val;
+		
+		/**
+		 * Constructor. Takes a key, and creates a detached Node.
+		 * @param v Node key
+		 */
+		GenericSplayNode(K v) {
+			val = v;
+		}
+		
+		/**
+		 * Used to display the Node's key, followed by its left and right
+		 * children (essentially a preorder traversal display).
+		 */
+		@Override
+		public String toString() {
+			return DUMPER.toString(this);
+		}
+		
+		/**
+		 * @return Node key
+		 */
+		public K val() {
+			return val;
+		}
+	}
+	
+	/**
+	 * Default constructor. Creates an empty splay tree, ordering its keys by
+	 * their natural ordering.
+	 * @throws ClassCastException On additions and searches, if the keys are
+	 * not {@code Comparable}
+	 */
+	@SuppressWarnings("unchecked")
+	public GenericSplayTree() {
+		this((Comparator<? super K>) Comparator.naturalOrder());
+	}
+	
+	/**
+	 * Used to create an empty splay tree, ordering its keys with the specified
+	 * comparator.
+	 * @param c The comparator to order keys with
+	 */
+	public GenericSplayTree(Comparator<? super K> c) {
+		this(c, SplayPolicy.ALWAYS, new OperationCounter());
+	}
+	
+	/**
+	 * Used to create an empty splay tree, ordering its keys with the specified
+	 * comparator, restructuring itself on accesses according to the specified
+	 * policy and recording its operations with the specified counter.
+	 * @param c The comparator to order keys with
+	 * @param sp The splay policy to apply on accesses
+	 * @param oc The operation counter to record operations with
+	 */
+	public GenericSplayTree(Comparator<? super K> c, SplayPolicy sp, OperationCounter oc) {
+		super(sp, oc, null);
+		if (c == null)
+			throw new IllegalArgumentException("No comparator");
+		comparator = c;
+	}
+	
+	/**
+	 * Adds the specified key by searching down the tree for a suitable
+	 * location, then splays it to the top of the tree.
+	 * @param k The key to add to the tree
+	 * @return The created Node
+	 */
+	public GenericSplayNode<K> add(K k) {
+		opcount.add();
+		long start = opcount.begin();
+		GenericSplayNode<K> rt = insert(new GenericSplayNode<>(k), 0, k);
+		opcount.end(Operation.ADD, start);
+		return rt;
+	}
+	
+	/**
+	 * @return The comparator ordering the keys
+	 */
+	public Comparator<? super K> comparator() {
+		return comparator;
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dump(Appendable out, Traversal t) throws IOException {
+		DUMPER.dump(root, t, out);
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dumpDot(Appendable out) throws IOException {
+		DUMPER.dumpDot(root, out);
+	}
+	
+	/**
+	 * Finds the specified key, then splays it to the top of the tree if the
+	 * policy says so. If it cannot be found, the last visited Node is splayed
+	 * instead.
+	 * @param k The key to search for
+	 * @return The Node containing the key ({@code null} if not found)
+	 */
+	@Override
+	public GenericSplayNode<K> find(K k) {
+		opcount.find();
+		long start = opcount.begin();
+		GenericSplayNode<K> rt = find(0, k, policy);
+		opcount.end(Operation.FIND, start);
+		return rt;
+	}
+	
+	/**
+	 * Finds and removes the specified key after splaying it to the top of the
+	 * tree.
+	 * @param k The key to remove
+	 * @return The Node containing the key ({@code null} if not found)
+	 */
+	public GenericSplayNode<K> remove(K k) {
+		opcount.remove();
+		long start = opcount.begin();
+		GenericSplayNode<K> rt = find(0, k, SplayPolicy.ALWAYS);
+		if (rt != null)
+			detach(rt);
+		opcount.end(Operation.REMOVE, start);
+		return rt;
+	}
+	
+	/**
+	 * Searches for the specified key without splaying, leaving the tree
+	 * untouched so that concurrent searches are safe.
+	 * @param k The key to search for
+	 * @return Depth of the Node containing the key, or {@code -1 - depth} of
+	 * the last visited Node if not found ({@code -1} if the tree is empty)
+	 */
+	public int search(K k) {
+		opcount.find();
+		return search(0, k);
+	}
+	
+	/**
+	 * Used to display the tree's contents.
+	 */
+	@Override
+	public String toString() {
+		return DUMPER.toString(root);
+	}
+	
+	/**
+	 * {@code AbstractSplayTree<N>} method override.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	int compare(long k, Object o, GenericSplayNode<K> sn) {
+		return comparator.compare((K) o, sn.val());
+	}
+}
@@ -0,0 +1,196 @@
+package com.splay;
+
+import com.splay.opcount.OperationCounter;
+import com.splay.opcount.OperationCounter.Operation;
+import com.tree.LongSearchTree;
+import com.tree.Traversal;
+import com.tree.TreeDumper;
+import java.io.IOException;
+
+/**
+ * Splay tree over primitive long values (e.g., timestamps). Hand-specialized
+ * version of {@code SplayTree}, sharing its splay algorithm, so that values
+ * are never boxed unless accessed through {@code find(Long)}.
+ * @author Benjamin Vial (29590765)
+ * @see SplayTree
+ */
+public class LongSplayTree extends AbstractSplayTree<LongSplayTree.LongSplayNode> implements LongSearchTree {
+	private static final TreeDumper<LongSplayNode> DUMPER = new TreeDumper<LongSplayNode>() {
+		@Override
+		protected void label(LongSplayNode sn, Appendable out) throws IOException {
+			out.append(Long.toString(sn.val()));
+		}
+		
+		@Override
+		protected LongSplayNode left(LongSplayNode sn) {
+			return sn.left();
+		}
+		
+		@Override
+		protected LongSplayNode right(LongSplayNode sn) {
+			return sn.right();
+		}
+	};
+	
+	/**
+	 * Long splay tree Node class. Contains a pointer to its left and right
+	 * children as well as to its parent.
+	 */
+	public static class LongSplayNode extends Node<LongSplayNode> implements LongNode {
+		private final long val;
+		
+		/**
+		 * Constructor. Takes a long value, and creates a detached Node.
+		 * @param v Node value
+		 */
+		LongSplayNode(long v) {
+			val = v;
+		}
+		
+		/**
+		 * Used to display the Node's value, followed by its left and right
+		 * children (essentially a preorder traversal display).
+		 */
+		@Override
+		public String toString() {
+			return DUMPER.toString(this);
+		}
+		
+		/**
+		 * @return Node value
+		 */
+		@Override
+		public long val() {
+			return val;
+		}
+	}
+	
+	/**
+	 * Default constructor. Creates an empty splay tree.
+	 */
+	public LongSplayTree() {
+		this(SplayPolicy.ALWAYS);
+	}
+	
+	/**
+	 * Used to create an empty splay tree, restructuring itself on accesses
+	 * according to the specified policy.
+	 * @param sp The splay policy to apply on accesses
+	 */
+	public LongSplayTree(SplayPolicy sp) {
+		this(sp, new OperationCounter());
+	}
+	
+	/**
+	 * Used to create an empty splay tree, restructuring itself on accesses
+	 * according to the specified policy and recording its operations with the
+	 * specified counter.
+	 * @param sp The splay policy to apply on accesses
+	 * @param oc The operation counter to record operations with
+	 */
+	public LongSplayTree(SplayPolicy sp, OperationCounter oc) {
+		super(sp, oc, null);
+	}
+	
+	/**
+	 * Adds the specified value by searching down the tree for a suitable
+	 * location, then splays it to the top of the tree.
+	 * @param n The value to add to the tree
+	 * @return The created Node
+	 */
+	@Override
+	public LongSplayNode add(long n) {
+		opcount.add();
+		long start = opcount.begin();
+		LongSplayNode rt = insert(new LongSplayNode(n), n, null);
+		opcount.end(Operation.ADD, start);
+		return rt;
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dump(Appendable out, Traversal t) throws IOException {
+		DUMPER.dump(root, t, out);
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dumpDot(Appendable out) throws IOException {
+		DUMPER.dumpDot(root, out);
+	}
+	
+	/**
+	 * Unboxing form of {@code find(long)}.
+	 * @param n The value to search for
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	@Override
+	public LongSplayNode find(Long n) {
+		return find(n.longValue());
+	}
+	
+	/**
+	 * Finds the specified value, then splays it to the top of the tree if the
+	 * policy says so. If it cannot be found, the last visited Node is splayed
+	 * instead.
+	 * @param n The value to search for
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	@Override
+	public LongSplayNode find(long n) {
+		opcount.find();
+		long start = opcount.begin();
+		LongSplayNode rt = find(n, null, policy);
+		opcount.end(Operation.FIND, start);
+		return rt;
+	}
+	
+	/**
+	 * Finds and removes the specified value after splaying it to the top of
+	 * the tree.
+	 * @param n The value to remove
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	@Override
+	public LongSplayNode remove(long n) {
+		opcount.remove();
+		long start = opcount.begin();
+		LongSplayNode rt = find(n, null, SplayPolicy.ALWAYS);
+		if (rt != null)
+			detach(rt);
+		opcount.end(Operation.REMOVE, start);
+		return rt;
+	}
+	
+	/**
+	 * Searches for the specified value without splaying, leaving the tree
+	 * untouched so that concurrent searches are safe.
+	 * @param n The value to search for
+	 * @return Depth of the Node containing the value, or {@code -1 - depth}
+	 * of the last visited Node if not found ({@code -1} if the tree is empty)
+	 */
+	public int search(long n) {
+		opcount.find();
+		return search(n, null);
+	}
+	
+	/**
+	 * Used to display the tree's contents.
+	 */
+	@Override
+	public String toString() {
+		return DUMPER.toString(root);
+	}
+	
+	/**
+	 * {@code AbstractSplayTree<N>} method override.
+	 */
+	@Override
+	int compare(long k, Object o, LongSplayNode sn) {
+		return Long.compare(k, sn.val());
+	}
+}
@@ -0,0 +1,333 @@
+package com.splay;
+
+import com.splay.opcount.OperationCounter;
+import com.splay.opcount.OperationCounter.Operation;
+import com.tree.BinaryTree;
+import com.tree.Traversal;
+import com.tree.TreeDumper;
+import java.io.IOException;
+
+/**
+ * Capacity-bounded splay tree, used as a sorted cache index from integer keys
+ * to values. Recently used keys are splayed toward the root, and the Nodes
+ * are also threaded through an intrusive list in order of use: when the
+ * cache is full, the victim is the least recently used key at the end of the
+ * list, found in constant time, then splayed to the top of the tree and
+ * detached in amortized logarithmic time. Hits, misses and evictions are
+ * recorded by the operation counter.
+ * <p>
+ * The list costs two extra pointers per Node, and a constant-time update on
+ * every hit. The splay shape alone does not give a cheap victim: reaching the
+ * deepest region is an unpaid walk that degenerates to the cache capacity
+ * once time-ordered keys have left the tree as a path, and the leaf the
+ * insertion reaches is a neighbour of the new key, often just as hot. The
+ * list is intrusive, so it takes no separate allocation, and it evicts
+ * strictly in order of use.
+ * @author Benjamin Vial (29590765)
+ * @param <V> Value type
+ * @see SplayTree
+ */
+public class SplayCache<V> extends AbstractSplayTree<SplayCache.CacheNode<V>> implements BinaryTree<Integer> {
+	private static final TreeDumper<CacheNode<?>> DUMPER = new TreeDumper<CacheNode<?>>() {
+		@Override
+		protected void label(CacheNode<?> cn, Appendable out) throws IOException {
+			out.append(Integer.toString(cn.val()));
+		}
+		
+		@Override
+		protected CacheNode<?> left(CacheNode<?> cn) {
+			return cn.left();
+		}
+		
+		@Override
+		protected CacheNode<?> right(CacheNode<?> cn) {
+			return cn.right();
+		}
+	};
+	private final int capacity;
+	private int count;
+	private CacheNode<V> newest;
+	private CacheNode<V> oldest;
+	
+	/**
+	 * Splay cache Node class. Holds a key and its value, as well as pointers
+	 * to its left and right children and to its parent, and to the Nodes used
+	 * just before and just after it.
+	 * @param <V> Value type
+	 */
+	public static class CacheNode<V> extends Node<CacheNode<V>> implements IntNode {
+		private final int key;
+		private CacheNode<V> newer;
+		private CacheNode<V> older;
+		private V value;
+		
+		/**
+		 * Constructor. Takes a key and its value, and creates a detached
+		 * Node.
+		 * @param k Node key
+		 * @param v Node value
+		 */
+		CacheNode(int k, V v) {
+			key = k;
+			value = v;
+		}
+		
+		/**
+		 * Used to display the Node's key, followed by its left and right
+		 * children (essentially a preorder traversal display).
+		 */
+		@Override
+		public String toString() {
+			return DUMPER.toString(this);
+		}
+		
+		/**
+		 * @return Node key
+		 */
+		@Override
+		public int val() {
+			return key;
+		}
+		
+		/**
+		 * @return Value mapped to the Node key
+		 */
+		public V value() {
+			return value;
+		}
+	}
+	
+	/**
+	 * Used to create an empty cache holding at most the specified number of
+	 * keys.
+	 * @param capacity Maximum number of keys
+	 * @throws IllegalArgumentException If the capacity is not positive
+	 */
+	public SplayCache(int capacity) {
+		this(capacity, SplayPolicy.ALWAYS, new OperationCounter());
+	}
+	
+	/**
+	 * Used to create an empty cache holding at most the specified number of
+	 * keys, restructuring itself on accesses according to the specified
+	 * policy and recording its operations with the specified counter.
+	 * @param capacity Maximum number of keys
+	 * @param sp The splay policy to apply on accesses
+	 * @param oc The operation counter to record operations with
+	 * @throws IllegalArgumentException If the capacity is not positive
+	 */
+	public SplayCache(int capacity, SplayPolicy sp, OperationCounter oc) {
+		super(sp, oc, null);
+		if (capacity <= 0)
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		this.capacity = capacity;
+	}
+	
+	/**
+	 * @return Maximum number of keys
+	 */
+	public int capacity() {
+		return capacity;
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dump(Appendable out, Traversal t) throws IOException {
+		DUMPER.dump(root, t, out);
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dumpDot(Appendable out) throws IOException {
+		DUMPER.dumpDot(root, out);
+	}
+	
+	/**
+	 * Unboxing form of {@code find(int)}.
+	 * @param k The key to search for
+	 * @return The Node containing the key ({@code null} if not found)
+	 */
+	@Override
+	public CacheNode<V> find(Integer k) {
+		return find(k.intValue());
+	}
+	
+	/**
+	 * Looks the specified key up, recording a hit or a miss, then splays it
+	 * to the top of the tree if the policy says so. If it cannot be found,
+	 * the last visited Node is splayed instead.
+	 * @param k The key to search for
+	 * @return The Node containing the key ({@code null} if not found)
+	 */
+	public CacheNode<V> find(int k) {
+		opcount.find();
+		long start = opcount.begin();
+		CacheNode<V> rt = find(k, null, policy);
+		if (rt == null)
+			opcount.miss();
+		else {
+			opcount.hit();
+			touch(rt);
+		}
+		opcount.end(Operation.FIND, start);
+		return rt;
+	}
+	
+	/**
+	 * Looks the specified key up, recording a hit or a miss.
+	 * @param k The key to search for
+	 * @return The value mapped to the key ({@code null} if not cached)
+	 */
+	public V get(int k) {
+		CacheNode<V> cn = find(k);
+		return cn == null ? null : cn.value;
+	}
+	
+	/**
+	 * Copies the cached keys within the specified inclusive range to the given
+	 * array, in order, without splaying. Stops early if the array is full.
+	 * @param lo The lower bound of the range
+	 * @param hi The upper bound of the range
+	 * @param keys The array to copy the keys to
+	 * @return Number of keys copied
+	 */
+	public int keys(int lo, int hi, int[] keys) {
+		int i = 0;
+		CacheNode<V> cn = null;
+		// Leftmost Node whose key is greater than or equal to the lower bound
+		for (CacheNode<V> it = root; it != null; ) {
+			opcount.compare();
+			if (it.val() >= lo) {
+				cn = it;
+				it = it.left();
+			}
+			else
+				it = it.right();
+		}
+		for (; cn != null && cn.val() <= hi && i < keys.length; cn = successor(cn))
+			keys[i++] = cn.val();
+		return i;
+	}
+	
+	/**
+	 * Maps the specified key to the given value, then splays it to the top of
+	 * the tree. If the key is not cached yet and the cache is full, the least
+	 * recently used key is evicted first.
+	 * @param k The key to cache
+	 * @param v The value to map the key to
+	 * @return The value previously mapped to the key ({@code null} if none)
+	 */
+	public V put(int k, V v) {
+		opcount.add();
+		long start = opcount.begin();
+		CacheNode<V> cn = find(k, null, SplayPolicy.ALWAYS);
+		V rt = null;
+		if (cn != null) {
+			rt = cn.value;
+			cn.value = v;
+		}
+		else {
+			if (count == capacity)
+				evict();
+			cn = insert(new CacheNode<>(k, v), k, null);
+			++count;
+		}
+		touch(cn);
+		opcount.end(Operation.ADD, start);
+		return rt;
+	}
+	
+	/**
+	 * Removes the specified key after splaying it to the top of the tree.
+	 * @param k The key to remove
+	 * @return The value mapped to the key ({@code null} if not cached)
+	 */
+	public V remove(int k) {
+		opcount.remove();
+		long start = opcount.begin();
+		CacheNode<V> cn = find(k, null, SplayPolicy.ALWAYS);
+		if (cn != null) {
+			unlink(cn);
+			detach(cn);
+			--count;
+		}
+		opcount.end(Operation.REMOVE, start);
+		return cn == null ? null : cn.value;
+	}
+	
+	/**
+	 * @return Number of cached keys
+	 */
+	@Override
+	public int size() {
+		return count;
+	}
+	
+	/**
+	 * Used to display the cache's keys.
+	 */
+	@Override
+	public String toString() {
+		return DUMPER.toString(root);
+	}
+	
+	/**
+	 * {@code AbstractSplayTree<N>} method override.
+	 */
+	@Override
+	int compare(long k, Object o, CacheNode<V> sn) {
+		return Integer.compare((int) k, sn.val());
+	}
+	
+	/**
+	 * Evicts the least recently used key, splaying it to the top of the tree
+	 * before detaching it so that the cost of reaching it is amortized.
+	 */
+	private void evict() {
+		CacheNode<V> victim = oldest;
+		unlink(victim);
+		splay(victim);
+		detach(victim);
+		--count;
+		opcount.evict();
+	}
+	
+	/**
+	 * Moves the specified Node to the front of the list of used Nodes, adding
+	 * it to the list if necessary.
+	 * @param cn The Node just used
+	 */
+	private void touch(CacheNode<V> cn) {
+		if (cn == newest)
+			return;
+		unlink(cn);
+		cn.older = newest;
+		if (newest != null)
+			newest.newer = cn;
+		else
+			oldest = cn;
+		newest = cn;
+	}
+	
+	/**
+	 * Removes the specified Node from the list of used Nodes, if it is in the
+	 * list.
+	 * @param cn The Node to remove
+	 */
+	private void unlink(CacheNode<V> cn) {
+		if (cn.newer != null)
+			cn.newer.older = cn.older;
+		else if (cn == newest)
+			newest = cn.older;
+		if (cn.older != null)
+			cn.older.newer = cn.newer;
+		else if (cn == oldest)
+			oldest = cn.newer;
+		cn.newer = null;
+		cn.older = null;
+	}
+}
@@ -0,0 +1,84 @@
+package com.splay;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Splay policy. Decides whether an accessed Node should be brought towards
+ * the top of the tree, and whether it should be fully splayed or only
+ * semi-splayed (halving its depth, rather than making it the root). Accesses
+ * that do not splay leave the tree untouched, and can therefore run
+ * concurrently with each other.
+ * @author Benjamin Vial (29590765)
+ * @see SplayTree
+ */
+public final class SplayPolicy {
+	/**
+	 * Splays on every access.
+	 */
+	public static final SplayPolicy ALWAYS = new SplayPolicy(1.0, 0, false);
+	/**
+	 * Semi-splays on every access.
+	 */
+	public static final SplayPolicy SEMI = new SplayPolicy(1.0, 0, true);
+	private final double probability;
+	private final boolean semi;
+	private final int threshold;
+	
+	/**
+	 * Constructor.
+	 * @param p Probability of splaying on an access
+	 * @param d Depth the accessed Node must exceed to be splayed
+	 * @param s Whether to semi-splay rather than fully splay
+	 */
+	private SplayPolicy(double p, int d, boolean s) {
+		probability = p;
+		threshold = d;
+		semi = s;
+	}
+	
+	/**
+	 * Used to create a policy splaying only when the accessed Node is deeper
+	 * than the specified depth.
+	 * @param d Depth the accessed Node must exceed (the root has depth 0)
+	 * @return Resulting policy
+	 * @throws IllegalArgumentException If the depth is negative
+	 */
+	public static SplayPolicy depth(int d) {
+		if (d < 0)
+			throw new IllegalArgumentException("Invalid depth threshold: " + d);
+		return new SplayPolicy(1.0, d, false);
+	}
+	
+	/**
+	 * Used to create a policy splaying with the specified probability on each
+	 * access.
+	 * @param p Probability of splaying, between {@code 0} and {@code 1}
+	 * @return Resulting policy
+	 * @throws IllegalArgumentException If the probability is out of range
+	 */
+	public static SplayPolicy probability(double p) {
+		if (!(p >= 0.0 && p <= 1.0))
+			throw new IllegalArgumentException("Invalid splay probability: " + p);
+		return new SplayPolicy(p, 0, false);
+	}
+	
+	/**
+	 * @return {@code true} if accessed Nodes are semi-splayed, {@code false}
+	 * if they are fully splayed
+	 */
+	public boolean isSemi() {
+		return semi;
+	}
+	
+	/**
+	 * Decides whether an access ending at the specified depth should splay.
+	 * @param depth Depth of the accessed Node (the root has depth 0)
+	 * @return {@code true} if the Node should be splayed, {@code false}
+	 * otherwise
+	 */
+	public boolean shouldSplay(int depth) {
+		if (depth <= threshold)
+			return false;
+		return probability >= 1.0 || ThreadLocalRandom.current().nextDouble() < probability;
+	}
+}
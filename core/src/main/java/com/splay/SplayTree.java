@@ -0,0 +1,934 @@
+package com.splay;
+
+import com.monitor.RebuildEvent;
+import com.splay.opcount.OperationCounter;
+import com.splay.opcount.OperationCounter.Operation;
+import com.splay.trace.TraceReplayer;
+import com.tree.SearchTree;
+import com.tree.Traversal;
+import com.tree.TreeDumper;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Splay tree implementation.
+ * @author Benjamin Vial (29590765)
+ */
+public class SplayTree extends AbstractSplayTree<SplayTree.SplayNode> implements SearchTree {
+	public static final byte[] SNAPSHOT_MAGIC = { 'S', 'P', 'L', 'S' };
+	public static final byte SNAPSHOT_VERSION = 1;
+	private static final int BUFFER_SIZE = 1 << 16;
+	// Header: magic, version and Node count
+	private static final int HEADER_SIZE = 13;
+	// Value difference and child flags fit in 34 bits, i.e. five 7-bit groups
+	private static final int MAX_RECORD_SIZE = 5;
+	private static final long PROGRESS_INTERVAL = 1 << 16;
+	private static final TreeDumper<SplayNode> DUMPER = new TreeDumper<SplayNode>() {
+		@Override
+		protected void label(SplayNode sn, Appendable out) throws IOException {
+			out.append(Integer.toString(sn.val()));
+		}
+		
+		@Override
+		protected SplayNode left(SplayNode sn) {
+			return sn.left();
+		}
+		
+		@Override
+		protected SplayNode right(SplayNode sn) {
+			return sn.right();
+		}
+	};
+	// Number of Nodes, or -1 if unknown since a split
+	private int count;
+	// Sort buffer for reordered batches, reused across calls
+	private long[] scratch;
+	
+	/**
+	 * Cursor over the values of the tree, in order. Remembers a Node (its
+	 * finger), so that seeking a value near the current one only walks the
+	 * path between the two Nodes, rather than searching down from the root:
+	 * sequential and near-sequential scans cost amortized constant time per
+	 * step, and the cursor never restructures the tree until it is released.
+	 * Modifying the tree invalidates its cursors.
+	 */
+	public class Cursor {
+		private SplayNode node;
+		
+		/**
+		 * Constructor. Creates a cursor positioned on no Node.
+		 */
+		private Cursor() {
+			node = null;
+		}
+		
+		/**
+		 * Moves the cursor to the minimum value of the tree.
+		 * @return {@code true} if the tree is not empty, {@code false}
+		 * otherwise
+		 */
+		public boolean first() {
+			node = findMin(root);
+			return node != null;
+		}
+		
+		/**
+		 * Moves the cursor to the maximum value of the tree.
+		 * @return {@code true} if the tree is not empty, {@code false}
+		 * otherwise
+		 */
+		public boolean last() {
+			node = findMax(root);
+			return node != null;
+		}
+		
+		/**
+		 * Moves the cursor to the next value, in order.
+		 * @return {@code true} if there is one, {@code false} otherwise
+		 * @throws NoSuchElementException If the cursor is not positioned
+		 */
+		public boolean next() {
+			if (node == null)
+				throw new NoSuchElementException("Cursor is not positioned");
+			node = successor(node);
+			return node != null;
+		}
+		
+		/**
+		 * Moves the cursor to the previous value, in order.
+		 * @return {@code true} if there is one, {@code false} otherwise
+		 * @throws NoSuchElementException If the cursor is not positioned
+		 */
+		public boolean prev() {
+			if (node == null)
+				throw new NoSuchElementException("Cursor is not positioned");
+			node = predecessor(node);
+			return node != null;
+		}
+		
+		/**
+		 * Releases the cursor, leaving it positioned on no Node.
+		 * @param splay Whether to splay the current Node to the top of the
+		 * tree, so that later accesses near it are cheap
+		 */
+		public void release(boolean splay) {
+			if (splay && node != null)
+				SplayTree.this.splay(node);
+			node = null;
+		}
+		
+		/**
+		 * Moves the cursor to the leftmost value greater than or equal to the
+		 * specified one (finger search). Climbs from the current Node up to the
+		 * closest ancestor whose subtree holds the target position, then
+		 * searches down from there; from no Node, searches down from the root.
+		 * @param n The value to seek
+		 * @return {@code true} if the cursor is now on a value equal to
+		 * {@code n}, {@code false} otherwise (including when every value is
+		 * smaller, in which case the cursor is positioned on no Node)
+		 */
+		public boolean seek(int n) {
+			SplayNode sn = node;
+			SplayNode fallback = null;
+			if (sn == null)
+				sn = lowerBound(n, root);
+			else {
+				while (true) {
+					opcount.compare();
+					if (sn.val() < n) {
+						// Closest ancestor greater than the subtree
+						SplayNode up = sn;
+						while (up.parent() != null && up.parent().right() == up)
+							up = up.parent();
+						SplayNode bound = up.parent();
+						if (bound != null) {
+							opcount.compare();
+							if (bound.val() < n) {
+								sn = bound;
+								continue;
+							}
+						}
+						fallback = bound;
+						sn = lowerBound(n, sn.right());
+					}
+					else {
+						// Closest ancestor smaller than the subtree
+						SplayNode up = sn;
+						while (up.parent() != null && up.parent().left() == up)
+							up = up.parent();
+						SplayNode bound = up.parent();
+						if (bound != null) {
+							opcount.compare();
+							if (bound.val() >= n) {
+								sn = bound;
+								continue;
+							}
+						}
+						fallback = sn;
+						sn = lowerBound(n, sn.left());
+					}
+					break;
+				}
+			}
+			node = sn == null ? fallback : sn;
+			return node != null && node.val() == n;
+		}
+		
+		/**
+		 * @return {@code true} if the cursor is positioned on a Node,
+		 * {@code false} otherwise
+		 */
+		public boolean valid() {
+			return node != null;
+		}
+		
+		/**
+		 * @return The value the cursor is positioned on
+		 * @throws NoSuchElementException If the cursor is not positioned
+		 */
+		public int val() {
+			if (node == null)
+				throw new NoSuchElementException("Cursor is not positioned");
+			return node.val();
+		}
+	}
+	
+	/**
+	 * Splay tree Node class. Contains a pointer to its left and right children
+	 * as well as to its parent.
+	 */
+	public static class SplayNode extends Node<SplayNode> implements IntNode, Comparable<SplayNode> {
+		private int val;
+		
+		/**
+		 * Constructor. Takes a parent, left and right Nodes, as well as an
+		 * integer value.
+		 * @param p Parent
+		 * @param l Left child
+		 * @param r Right child
+		 * @param v Node value
+		 */
+		SplayNode(SplayNode p, SplayNode l, SplayNode r, int v) {
+			parent = p;
+			left = l;
+			right = r;
+			val = v;
+		}
+		
+		/**
+		 * {@code Comparable<T>} method override.
+		 */
+		@Override
+		public int compareTo(SplayNode sn) {
+			if (val < sn.val())
+				return -1;
+			if (val == sn.val())
+				return 0;
+			return 1;
+		}
+		
+		/**
+		 * Used to display the Node's value, followed by its left and right
+		 * children (essentially a preorder traversal display).
+		 */
+		@Override
+		public String toString() {
+			return DUMPER.toString(this);
+		}
+		
+		/**
+		 * @return Node value
+		 */
+		public int val() {
+			return val;
+		}
+	}
+	
+	/**
+	 * Default constructor. Creates an empty splay tree.
+	 */
+	public SplayTree() {
+		this(SplayPolicy.ALWAYS);
+	}
+	
+	/**
+	 * Used to create an empty splay tree, restructuring itself on accesses
+	 * according to the specified policy.
+	 * @param sp The splay policy to apply on accesses
+	 */
+	public SplayTree(SplayPolicy sp) {
+		this(sp, new OperationCounter());
+	}
+	
+	/**
+	 * Used to create an empty splay tree, restructuring itself on accesses
+	 * according to the specified policy and recording its operations with the
+	 * specified counter (e.g., a {@code NullOperationCounter} to turn counting
+	 * off).
+	 * @param sp The splay policy to apply on accesses
+	 * @param oc The operation counter to record operations with
+	 */
+	public SplayTree(SplayPolicy sp, OperationCounter oc) {
+		super(sp, oc, null);
+	}
+	
+	/**
+	 * Used to create a balanced splay tree from the specified sorted values,
+	 * in linear time and without any splaying.
+	 * @param a The values to build the tree from, in non-decreasing order
+	 * @throws IllegalArgumentException If the values are not sorted
+	 */
+	public SplayTree(int[] a) {
+		this();
+		addAll(a);
+	}
+	
+	/**
+	 * Used to create a balanced splay tree from the specified stream of sorted
+	 * values, in linear time and without any splaying.
+	 * @param is The values to build the tree from, in non-decreasing order
+	 * @throws IllegalArgumentException If the values are not sorted
+	 */
+	public SplayTree(IntStream is) {
+		this(is.toArray());
+	}
+	
+	/**
+	 * Used to create a splay tree around an existing, detached subtree. The
+	 * resulting tree shares the specified operation counter and policy.
+	 * @param oc The operation counter to record operations with
+	 * @param sp The splay policy to apply on accesses
+	 * @param sn The root of the subtree
+	 */
+	private SplayTree(OperationCounter oc, SplayPolicy sp, SplayNode sn) {
+		super(sp, oc, sn);
+		count = sn == null ? 0 : -1;
+	}
+	
+	/**
+	 * Used to createc an empty splay tree, then builds its structure according
+	 * to the specified input file.
+	 * @param file The file to build the tree from
+	 */
+	public SplayTree(String file) {
+		this();
+		build(file);
+	}
+	
+	/**
+	 * Adds the specified value by searching down the tree for a suitable
+	 * location, then splays it to the top of the tree.
+	 * @param n The value to add to the tree
+	 * @return The created Node
+	 */
+	@Override
+	public SplayNode add(int n) {
+		opcount.add();
+		long start = opcount.begin();
+		SplayNode rt = insert(new SplayNode(null, null, null, n), n, null);
+		if (count >= 0)
+			++count;
+		opcount.end(Operation.ADD, start);
+		return rt;
+	}
+	
+	/**
+	 * Adds the specified batch of sorted values to the tree. Small batches are
+	 * added one value at a time, in order, so that consecutive splays stay
+	 * close to each other. Larger batches are merged with the in-order
+	 * contents of the tree, which is then rebuilt as a balanced tree in
+	 * linear time without any splaying.
+	 * @param a The values to add, in non-decreasing order
+	 * @throws IllegalArgumentException If the values are not sorted
+	 */
+	public void addAll(int[] a) {
+		for (int i = 1; i < a.length; ++i)
+			if (a[i - 1] > a[i])
+				throw new IllegalArgumentException("Values are not sorted at index " + i);
+		int size = size();
+		// Individual adds cost about log(size) each, a rebuild costs size
+		if ((long) a.length * (32 - Integer.numberOfLeadingZeros(size)) < size) {
+			for (int n : a)
+				add(n);
+			return;
+		}
+		RebuildEvent re = new RebuildEvent();
+		re.begin();
+		SplayNode[] nodes = new SplayNode[size + a.length];
+		SplayNode sn = findMin(root);
+		int i = 0, j = 0;
+		while (sn != null || j < a.length) {
+			// Keep existing values first among duplicates
+			if (j == a.length || (sn != null && sn.val() <= a[j])) {
+				if (j < a.length)
+					opcount.compare();
+				nodes[i++] = sn;
+				sn = successor(sn);
+			}
+			else {
+				opcount.add();
+				nodes[i++] = new SplayNode(null, null, null, a[j++]);
+			}
+		}
+		root = link(nodes, 0, nodes.length - 1);
+		if (root != null)
+			setParent(root, null);
+		count = nodes.length;
+		if (re.shouldCommit()) {
+			re.tree = "splay";
+			re.nodes = nodes.length;
+			re.commit();
+		}
+	}
+	
+	/**
+	 * Applies the specified batch of operations, in the text and binary
+	 * operation files' codes ({@code 'a'}, {@code 'f'} or {@code 'r'}), and
+	 * writes whether each of them succeeded (always, for additions) to the
+	 * given array. When reordering, each run of consecutive finds is applied
+	 * in value order instead, so that successive splays follow neighboring
+	 * paths; finds do not change the contents of the tree, so the results are
+	 * the same either way. Does not allocate anything per operation.
+	 * @param ops The operation codes
+	 * @param values The operation values
+	 * @param off Index of the first operation to apply
+	 * @param len Number of operations to apply
+	 * @param results The array to write the results to, at the operations'
+	 * indices
+	 * @param reorder Whether to reorder runs of finds by value
+	 * @throws IllegalArgumentException If an operation code is unknown, in
+	 * which case no operation is applied
+	 * @throws IndexOutOfBoundsException If an array is too short
+	 */
+	public void apply(char[] ops, int[] values, int off, int len, boolean[] results, boolean reorder) {
+		Objects.checkFromIndexSize(off, len, ops.length);
+		Objects.checkFromIndexSize(off, len, values.length);
+		Objects.checkFromIndexSize(off, len, results.length);
+		for (int i = off; i < off + len; ++i)
+			if (ops[i] != 'a' && ops[i] != 'f' && ops[i] != 'r')
+				throw new IllegalArgumentException("Unknown operation '" + ops[i] + "' at index " + i);
+		int i = off;
+		while (i < off + len) {
+			int run = i;
+			while (reorder && run < off + len && ops[run] == 'f')
+				++run;
+			// Two finds or more: sort them by value, keeping their indices
+			if (run - i > 1) {
+				if (scratch == null || scratch.length < run - i)
+					scratch = new long[Math.max(run - i, 2 * (scratch == null ? 0 : scratch.length))];
+				for (int j = i; j < run; ++j)
+					scratch[j - i] = (long) values[j] << 32 | j;
+				Arrays.sort(scratch, 0, run - i);
+				for (int j = 0; j < run - i; ++j) {
+					int k = (int) scratch[j];
+					results[k] = find(values[k]) != null;
+				}
+				i = run;
+				continue;
+			}
+			switch (ops[i]) {
+			case 'a':
+				add(values[i]);
+				results[i] = true;
+				break;
+			case 'f':
+				results[i] = find(values[i]) != null;
+				break;
+			default:
+				results[i] = remove(values[i]) != null;
+				break;
+			}
+			++i;
+		}
+	}
+	
+	/**
+	 * Builds the splay tree according to the operations defined in the file.
+	 * @param file The file to build the tree from
+	 */
+	public void build(String file) {
+		System.out.print("Building splay tree from '" + file + "'; processing line ");
+		try {
+			new TraceReplayer(this, PROGRESS_INTERVAL).replay(file);
+			System.out.println("all done!\n");
+			System.out.println(stats());
+		}
+		catch (IOException e) {
+			System.out.println("Could not establish stream with file '" + file + "'");
+			System.exit(1);
+		}
+	}
+	
+	/**
+	 * Creates a cursor over the values of the tree, positioned on no Node.
+	 * @return The cursor
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dump(Appendable out, Traversal t) throws IOException {
+		DUMPER.dump(root, t, out);
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dumpDot(Appendable out) throws IOException {
+		DUMPER.dumpDot(root, out);
+	}
+	
+	/**
+	 * Unboxing form of {@code find(int)}.
+	 * @param n The value to search for
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	@Override
+	public SplayNode find(Integer n) {
+		return find(n.intValue());
+	}
+	
+	/**
+	 * Finds the specified value, then splays it to the top of the tree if the
+	 * policy says so. If it cannot be found, the last visited Node is splayed
+	 * instead.
+	 * @param n The value to search for
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	@Override
+	public SplayNode find(int n) {
+		opcount.find();
+		long start = opcount.begin();
+		SplayNode rt = find(n, null, policy);
+		opcount.end(Operation.FIND, start);
+		return rt;
+	}
+	
+	/**
+	 * Appends the contents of the specified tree to this one, leaving the
+	 * specified tree empty. Every value of this tree must be no greater than
+	 * every value of the specified tree. Runs in amortized logarithmic time.
+	 * @param st The tree to append
+	 * @throws IllegalArgumentException If the value ranges overlap
+	 */
+	public void join(SplayTree st) {
+		if (st == this)
+			throw new IllegalArgumentException("Cannot join a tree with itself");
+		if (st.isEmpty())
+			return;
+		// Splaying both extremes pays for the walks down to them, even if the
+		// value ranges overlap
+		st.splay(findMin(st.root));
+		if (root != null) {
+			splay(findMax(root));
+			opcount.compare();
+			if (root.val() > st.root.val())
+				throw new IllegalArgumentException("Overlapping value ranges: "
+						+ root.val() + " > " + st.root.val());
+		}
+		SplayNode right = st.root;
+		st.root = null;
+		count = count < 0 || st.count < 0 ? -1 : count + st.count;
+		st.count = 0;
+		join(root, right);
+	}
+	
+	/**
+	 * Searches for the specified value without splaying, like
+	 * {@code search(int)}, but returns the Node the search ended on, so that
+	 * it can be splayed later on with {@code promote(SplayNode)} without
+	 * searching for it again.
+	 * @param n The value to search for
+	 * @return The last visited Node, which holds the value if it was found
+	 * ({@code null} if the tree is empty)
+	 */
+	public SplayNode probe(int n) {
+		opcount.find();
+		return probe(n, null);
+	}
+	
+	/**
+	 * Splays the specified Node to the top of the tree (or semi-splays it, if
+	 * the policy says so) regardless of its depth or of the policy's
+	 * probability, like {@code splay(int)} but without searching for it.
+	 * @param sn A Node of this tree, typically returned by
+	 * {@code probe(int)}
+	 * @return The splayed Node
+	 */
+	public SplayNode promote(SplayNode sn) {
+		return policy.isSemi() ? semiSplay(sn) : splay(sn);
+	}
+	
+	/**
+	 * Finds and removes the specified value after splaying it to the top of
+	 * the tree.
+	 * @param n The value to search for and remove
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	@Override
+	public SplayNode remove(int n) {
+		opcount.remove();
+		long start = opcount.begin();
+		SplayNode rt = find(n, null, SplayPolicy.ALWAYS);
+		if (rt != null) {
+			detach(rt);
+			if (count > 0)
+				--count;
+		}
+		opcount.end(Operation.REMOVE, start);
+		return rt;
+	}
+	
+	/**
+	 * Removes every value within the specified inclusive range, by splitting
+	 * the range off and joining the remaining trees back together. Runs in
+	 * amortized logarithmic time.
+	 * @param lo The lower bound of the range
+	 * @param hi The upper bound of the range
+	 * @return A tree containing the removed values
+	 * @throws IllegalArgumentException If {@code lo} is greater than {@code hi}
+	 */
+	public SplayTree removeRange(int lo, int hi) {
+		if (lo > hi)
+			throw new IllegalArgumentException("Invalid range: [" + lo + ", " + hi + "]");
+		SplayTree range = split(lo);
+		// Nothing can be greater than the maximum integer value
+		if (hi != Integer.MAX_VALUE)
+			join(range.split(hi + 1));
+		return range;
+	}
+	
+	/**
+	 * Restores a splay tree from the specified snapshot file, with its exact
+	 * shape.
+	 * @param file The snapshot file to read
+	 * @return The restored tree
+	 * @throws IOException If the file cannot be read from
+	 * @throws NumberFormatException If the file is not a valid snapshot
+	 * @see #snapshot(String)
+	 */
+	public static SplayTree restore(String file) throws IOException {
+		try (FileChannel fc = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+			return restore(fc, SplayPolicy.ALWAYS, new OperationCounter());
+		}
+	}
+	
+	/**
+	 * Restores a splay tree from a snapshot read from the specified channel,
+	 * with its exact shape. Runs in linear time, without any splaying and
+	 * without recording any operation.
+	 * @param ch The channel to read the snapshot from
+	 * @param sp The splay policy the restored tree applies on accesses
+	 * @param oc The operation counter the restored tree records operations
+	 * with
+	 * @return The restored tree
+	 * @throws IOException If the channel cannot be read from
+	 * @throws NumberFormatException If the snapshot is invalid
+	 * @see #snapshot(WritableByteChannel)
+	 */
+	public static SplayTree restore(ReadableByteChannel ch, SplayPolicy sp, OperationCounter oc) throws IOException {
+		RebuildEvent re = new RebuildEvent();
+		re.begin();
+		ByteBuffer bb = ByteBuffer.allocate(BUFFER_SIZE);
+		boolean eof = fill(ch, bb, HEADER_SIZE);
+		for (int i = 0; i < SNAPSHOT_MAGIC.length; ++i)
+			if (bb.remaining() < HEADER_SIZE - i || bb.get() != SNAPSHOT_MAGIC[i])
+				throw new NumberFormatException("Not a splay tree snapshot");
+		byte version = bb.get();
+		if (version != SNAPSHOT_VERSION)
+			throw new NumberFormatException("Unsupported snapshot version " + version);
+		long count = bb.getLong();
+		SplayTree st = new SplayTree(sp, oc);
+		// Nodes still waiting for a child, with the children they are waiting for
+		SplayNode[] pending = new SplayNode[64];
+		byte[] flags = new byte[64];
+		int top = 0, previous = 0;
+		for (long i = 0; i < count; ++i) {
+			if (!eof && bb.remaining() < MAX_RECORD_SIZE) {
+				bb.compact();
+				eof = fill(ch, bb, MAX_RECORD_SIZE);
+			}
+			long z = 0;
+			for (int shift = 0; ; shift += 7) {
+				if (!bb.hasRemaining() || shift > 28)
+					throw new NumberFormatException("Truncated snapshot at Node " + (i + 1));
+				byte b = bb.get();
+				z |= (long) (b & 0x7F) << shift;
+				if (b >= 0)
+					break;
+			}
+			int d = (int) (z >>> 2);
+			previous += (d >>> 1) ^ -(d & 1);
+			SplayNode sn;
+			if (top == 0) {
+				if (i > 0)
+					throw new NumberFormatException("Malformed snapshot at Node " + (i + 1));
+				sn = new SplayNode(null, null, null, previous);
+				st.root = sn;
+			}
+			else {
+				SplayNode p = pending[top - 1];
+				sn = new SplayNode(p, null, null, previous);
+				// Left child first, then right child, as written in preorder
+				if ((flags[top - 1] & 1) != 0) {
+					p.left = sn;
+					flags[top - 1] &= ~1;
+					if (flags[top - 1] == 0)
+						--top;
+				}
+				else {
+					p.right = sn;
+					--top;
+				}
+			}
+			if ((z & 3) != 0) {
+				if (top == pending.length) {
+					pending = Arrays.copyOf(pending, top * 2);
+					flags = Arrays.copyOf(flags, top * 2);
+				}
+				pending[top] = sn;
+				flags[top++] = (byte) (z & 3);
+			}
+		}
+		if (top != 0)
+			throw new NumberFormatException("Truncated snapshot after " + count + " Nodes");
+		st.count = (int) count;
+		if (re.shouldCommit()) {
+			re.tree = "splay";
+			re.nodes = (int) Math.min(count, Integer.MAX_VALUE);
+			re.commit();
+		}
+		return st;
+	}
+	
+	/**
+	 * Searches for the specified value without splaying, leaving the tree
+	 * untouched so that concurrent searches are safe.
+	 * @param n The value to search for
+	 * @return Depth of the Node containing the value, or {@code -1 - depth}
+	 * of the last visited Node if not found ({@code -1} if the tree is empty)
+	 */
+	public int search(int n) {
+		opcount.find();
+		return search(n, null);
+	}
+	
+	/**
+	 * @return Number of values in the tree, in constant time unless it was
+	 * split since it was last counted
+	 */
+	@Override
+	public int size() {
+		if (count < 0)
+			count = super.size();
+		return count;
+	}
+	
+	/**
+	 * Writes a snapshot of the tree to the specified file, creating or
+	 * truncating it.
+	 * @param file The file to write the snapshot to
+	 * @throws IOException If the file cannot be written to
+	 * @see #restore(String)
+	 */
+	public void snapshot(String file) throws IOException {
+		try (FileChannel fc = FileChannel.open(Paths.get(file), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			snapshot(fc);
+		}
+	}
+	
+	/**
+	 * Writes a snapshot of the tree to the specified channel, keeping its
+	 * exact shape so that recently accessed values stay near the root once
+	 * restored. The snapshot starts with a header made of the
+	 * {@code SNAPSHOT_MAGIC} bytes, a version byte and the number of Nodes,
+	 * followed by one record per Node in preorder: a variable-length integer
+	 * holding the zigzag-encoded difference with the previous value, shifted
+	 * left by two bits to make room for whether the Node has a left (bit 0)
+	 * and a right (bit 1) child. Does not splay, nor record any operation.
+	 * @param ch The channel to write the snapshot to
+	 * @throws IOException If the channel cannot be written to
+	 */
+	public void snapshot(WritableByteChannel ch) throws IOException {
+		ByteBuffer bb = ByteBuffer.allocate(BUFFER_SIZE);
+		bb.put(SNAPSHOT_MAGIC);
+		bb.put(SNAPSHOT_VERSION);
+		bb.putLong(size());
+		ArrayDeque<SplayNode> stack = new ArrayDeque<>();
+		if (root != null)
+			stack.push(root);
+		int previous = 0;
+		while (!stack.isEmpty()) {
+			SplayNode sn = stack.pop();
+			if (bb.remaining() < MAX_RECORD_SIZE)
+				flush(ch, bb);
+			int d = sn.val() - previous;
+			previous = sn.val();
+			long z = (((d << 1) ^ (d >> 31)) & 0xFFFFFFFFL) << 2;
+			if (sn.right() != null) {
+				z |= 2;
+				stack.push(sn.right());
+			}
+			if (sn.left() != null) {
+				z |= 1;
+				stack.push(sn.left());
+			}
+			while ((z & ~0x7FL) != 0) {
+				bb.put((byte) ((z & 0x7F) | 0x80));
+				z >>>= 7;
+			}
+			bb.put((byte) z);
+		}
+		flush(ch, bb);
+	}
+	
+	/**
+	 * Finds the specified value, then splays it to the top of the tree (or
+	 * semi-splays it, if the policy says so) regardless of its depth or of
+	 * the policy's probability. If it cannot be found, the last visited Node
+	 * is splayed instead.
+	 * @param n The value to search for
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	public SplayNode splay(int n) {
+		return find(n, null, policy.isSemi() ? SplayPolicy.SEMI : SplayPolicy.ALWAYS);
+	}
+	
+	/**
+	 * Splits the tree around the specified value. Values lower than it are
+	 * kept in this tree, while values greater than or equal to it are moved
+	 * to the returned tree, which shares this tree's operation counter. Runs in
+	 * amortized logarithmic time.
+	 * @param n The value to split around
+	 * @return A tree containing the values greater than or equal to {@code n}
+	 */
+	public SplayTree split(int n) {
+		SplayNode sn = root;
+		if (sn == null)
+			return new SplayTree(opcount, policy, null);
+		// The last visited Node is either the leftmost one greater than or
+		// equal to n, or the one just before it in order; splaying it pays
+		// for the whole descent
+		while (true) {
+			opcount.compare();
+			SplayNode next = sn.val() >= n ? sn.left() : sn.right();
+			if (next == null)
+				break;
+			sn = next;
+		}
+		splay(sn);
+		SplayNode right;
+		if (sn.val() >= n) {
+			right = sn;
+			root = sn.left();
+			setLeft(sn, null);
+			if (root != null)
+				setParent(root, null);
+		}
+		else {
+			right = sn.right();
+			setRight(sn, null);
+			if (right != null)
+				setParent(right, null);
+		}
+		SplayTree rt = new SplayTree(opcount, policy, right);
+		// Unless either part is empty, neither can be counted without a walk
+		if (right == null)
+			rt.count = 0;
+		else if (root == null) {
+			rt.count = count;
+			count = 0;
+		}
+		else
+			count = -1;
+		return rt;
+	}
+	
+	/**
+	 * Used to display the tree's contents.
+	 */
+	@Override
+	public String toString() {
+		return DUMPER.toString(root);
+	}
+	
+	/**
+	 * {@code AbstractSplayTree<N>} method override.
+	 */
+	@Override
+	int compare(long k, Object o, SplayNode sn) {
+		return Integer.compare((int) k, sn.val());
+	}
+	
+	/**
+	 * Reads from the specified channel until the buffer holds at least the
+	 * given number of bytes, or the channel is exhausted. Leaves the buffer
+	 * ready to be read from.
+	 * @param ch The channel to read from
+	 * @param bb The buffer to fill, ready to be written to
+	 * @param n Number of bytes wanted
+	 * @return {@code true} if the channel is exhausted, {@code false}
+	 * otherwise
+	 * @throws IOException If the channel cannot be read from
+	 */
+	private static boolean fill(ReadableByteChannel ch, ByteBuffer bb, int n) throws IOException {
+		boolean eof = false;
+		while (bb.position() < n && !eof)
+			eof = ch.read(bb) == -1;
+		bb.flip();
+		return eof;
+	}
+	
+	/**
+	 * Writes the buffered bytes to the specified channel, then clears the
+	 * buffer.
+	 * @param ch The channel to write to
+	 * @param bb The buffer to write, ready to be written to
+	 * @throws IOException If the channel cannot be written to
+	 */
+	private static void flush(WritableByteChannel ch, ByteBuffer bb) throws IOException {
+		bb.flip();
+		while (bb.hasRemaining())
+			ch.write(bb);
+		bb.clear();
+	}
+	
+	/**
+	 * Finds, but does not splay, the leftmost Node whose value is greater
+	 * than or equal to the specified value, searching through the given
+	 * subtree.
+	 * @param n The value to search for
+	 * @param sn The subtree to search through
+	 * @return The Node found ({@code null} if every value is smaller)
+	 */
+	private SplayNode lowerBound(int n, SplayNode sn) {
+		SplayNode rt = null;
+		while (sn != null) {
+			opcount.compare();
+			if (sn.val() >= n) {
+				rt = sn;
+				sn = sn.left();
+			}
+			else
+				sn = sn.right();
+		}
+		return rt;
+	}
+	
+}
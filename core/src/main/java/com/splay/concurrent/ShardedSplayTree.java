@@ -0,0 +1,286 @@
+package com.splay.concurrent;
+
+import com.splay.SplayPolicy;
+import com.splay.SplayTree;
+import com.splay.SplayTree.SplayNode;
+import com.splay.opcount.ConcurrentOperationCounter;
+import com.splay.opcount.OperationCounter;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe splay tree. Partitions the values across a number of
+ * independent splay trees (shards), either by hash or by range, each of them
+ * guarded by its own lock, so that operations on different shards can run in
+ * parallel. Lookups search their shard under a shared read lock, and only
+ * upgrade to the exclusive write lock when the splay policy decides to splay,
+ * so that lookups on the same shard can also run in parallel. Every shard
+ * records its operations with the same thread-safe operation counter.
+ * @author Benjamin Vial (29590765)
+ * @see SplayTree
+ */
+public class ShardedSplayTree {
+	private final int[] bounds;
+	private final StampedLock[] locks;
+	private final OperationCounter opcount;
+	private final SplayTree[] shards;
+	
+	/**
+	 * Constructor. Creates the specified number of shards, partitioned by
+	 * hash.
+	 * @param n Number of shards
+	 * @throws IllegalArgumentException If the number of shards is not positive
+	 */
+	public ShardedSplayTree(int n) {
+		this(n, SplayPolicy.ALWAYS);
+	}
+	
+	/**
+	 * Constructor. Creates the specified number of shards, partitioned by
+	 * hash, restructuring themselves according to the specified policy.
+	 * @param n Number of shards
+	 * @param sp The splay policy to apply on lookups
+	 * @throws IllegalArgumentException If the number of shards is not positive
+	 */
+	public ShardedSplayTree(int n, SplayPolicy sp) {
+		this(n, sp, new ConcurrentOperationCounter());
+	}
+	
+	/**
+	 * Constructor. Creates the specified number of shards, partitioned by
+	 * hash, restructuring themselves according to the specified policy and
+	 * recording their operations with the specified counter.
+	 * @param n Number of shards
+	 * @param sp The splay policy to apply on lookups
+	 * @param oc The operation counter to record operations with, which must be
+	 * thread-safe
+	 * @throws IllegalArgumentException If the number of shards is not
+	 *         positive, or if the counter is not thread-safe
+	 * @see OperationCounter#isThreadSafe()
+	 */
+	public ShardedSplayTree(int n, SplayPolicy sp, OperationCounter oc) {
+		this(n, sp, oc, null);
+	}
+	
+	/**
+	 * Constructor. Creates one more shard than the specified number of bounds,
+	 * partitioned by range: shard {@code i} holds the values within
+	 * {@code [bounds[i-1], bounds[i])}.
+	 * @param bounds The range bounds, in strictly increasing order
+	 * @throws IllegalArgumentException If the bounds are not sorted
+	 */
+	public ShardedSplayTree(int[] bounds) {
+		this(bounds, SplayPolicy.ALWAYS);
+	}
+	
+	/**
+	 * Constructor. Creates one more shard than the specified number of bounds,
+	 * partitioned by range, restructuring themselves according to the
+	 * specified policy.
+	 * @param bounds The range bounds, in strictly increasing order
+	 * @param sp The splay policy to apply on lookups
+	 * @throws IllegalArgumentException If the bounds are not sorted
+	 */
+	public ShardedSplayTree(int[] bounds, SplayPolicy sp) {
+		this(bounds, sp, new ConcurrentOperationCounter());
+	}
+	
+	/**
+	 * Constructor. Creates one more shard than the specified number of bounds,
+	 * partitioned by range, restructuring themselves according to the
+	 * specified policy and recording their operations with the specified
+	 * counter.
+	 * @param bounds The range bounds, in strictly increasing order
+	 * @param sp The splay policy to apply on lookups
+	 * @param oc The operation counter to record operations with, which must be
+	 * thread-safe
+	 * @throws IllegalArgumentException If the bounds are not sorted, or if the
+	 *         counter is not thread-safe
+	 * @see OperationCounter#isThreadSafe()
+	 */
+	public ShardedSplayTree(int[] bounds, SplayPolicy sp, OperationCounter oc) {
+		this(bounds.length + 1, sp, oc, bounds.clone());
+		for (int i = 1; i < bounds.length; ++i)
+			if (bounds[i - 1] >= bounds[i])
+				throw new IllegalArgumentException("Bounds are not sorted at index " + i);
+	}
+	
+	/**
+	 * Constructor. Creates the specified number of shards.
+	 * @param n Number of shards
+	 * @param sp The splay policy to apply on lookups
+	 * @param oc The operation counter to record operations with
+	 * @param bounds The range bounds ({@code null} to partition by hash)
+	 * @throws IllegalArgumentException If the number of shards is not
+	 *         positive, or if the counter is not thread-safe
+	 */
+	private ShardedSplayTree(int n, SplayPolicy sp, OperationCounter oc, int[] bounds) {
+		if (n <= 0)
+			throw new IllegalArgumentException("Invalid number of shards: " + n);
+		if (!oc.isThreadSafe())
+			throw new IllegalArgumentException("Operation counter is not thread-safe: " + oc.getClass().getName());
+		this.bounds = bounds;
+		opcount = oc;
+		shards = new SplayTree[n];
+		locks = new StampedLock[n];
+		for (int i = 0; i < n; ++i) {
+			shards[i] = new SplayTree(sp, oc);
+			locks[i] = new StampedLock();
+		}
+	}
+	
+	/**
+	 * Adds the specified value to its shard.
+	 * @param n The value to add
+	 */
+	public void add(int n) {
+		int i = shard(n);
+		long stamp = locks[i].writeLock();
+		try {
+			shards[i].add(n);
+		}
+		finally {
+			locks[i].unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Checks whether the tree contains the specified value. The shard is
+	 * searched under the read lock, and the Node the search ended on is only
+	 * splayed (under the write lock) if its policy says so, so that every
+	 * lookup is counted once.
+	 * @param n The value to search for
+	 * @return {@code true} if the value is found, {@code false} otherwise
+	 */
+	public boolean contains(int n) {
+		int i = shard(n);
+		StampedLock lock = locks[i];
+		SplayTree st = shards[i];
+		long stamp = lock.readLock();
+		try {
+			SplayNode sn = st.probe(n);
+			if (sn == null)
+				return false;
+			boolean found = sn.val() == n;
+			if (!st.policy().shouldSplay(st.depth(sn)))
+				return found;
+			long ws = lock.tryConvertToWriteLock(stamp);
+			if (ws == 0L) {
+				lock.unlockRead(stamp);
+				stamp = lock.writeLock();
+				// Tree may have changed while waiting for the write lock, and
+				// the last visited Node may have been removed
+				if (st.depth(sn) < 0)
+					return found;
+			}
+			else
+				stamp = ws;
+			// Splay the Node the search ended on, rather than searching again
+			st.promote(sn);
+			return found;
+		}
+		finally {
+			lock.unlock(stamp);
+		}
+	}
+	
+	/**
+	 * @return The operation counter recording every shard's operations
+	 */
+	public OperationCounter counter() {
+		return opcount;
+	}
+	
+	/**
+	 * Measures the height of the tallest shard, under each shard's read lock.
+	 * @return Number of levels in the tallest shard
+	 */
+	public int height() {
+		int height = 0;
+		for (int i = 0; i < shards.length; ++i) {
+			long stamp = locks[i].readLock();
+			try {
+				height = Math.max(height, shards[i].height());
+			}
+			finally {
+				locks[i].unlockRead(stamp);
+			}
+		}
+		return height;
+	}
+	
+	/**
+	 * @return {@code true} if every shard is empty, {@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		for (int i = 0; i < shards.length; ++i) {
+			long stamp = locks[i].readLock();
+			try {
+				if (!shards[i].isEmpty())
+					return false;
+			}
+			finally {
+				locks[i].unlockRead(stamp);
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Removes the specified value from its shard.
+	 * @param n The value to remove
+	 * @return {@code true} if the value was found, {@code false} otherwise
+	 */
+	public boolean remove(int n) {
+		int i = shard(n);
+		long stamp = locks[i].writeLock();
+		try {
+			return shards[i].remove(n) != null;
+		}
+		finally {
+			locks[i].unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Counts the values of every shard, under each shard's read lock.
+	 * @return Number of values in the tree
+	 */
+	public int size() {
+		int size = 0;
+		for (int i = 0; i < shards.length; ++i) {
+			long stamp = locks[i].readLock();
+			try {
+				size += shards[i].size();
+			}
+			finally {
+				locks[i].unlockRead(stamp);
+			}
+		}
+		return size;
+	}
+	
+	/**
+	 * @return Output of the {@code OperationCounter}'s {@code stats()} method,
+	 * covering every shard
+	 */
+	public String stats() {
+		return opcount.stats();
+	}
+	
+	/**
+	 * Finds the shard holding the specified value.
+	 * @param n The value to look for
+	 * @return Index of the shard
+	 */
+	private int shard(int n) {
+		if (bounds != null) {
+			int i = Arrays.binarySearch(bounds, n);
+			return i >= 0 ? i + 1 : -i - 1;
+		}
+		// Mix the bits so that strided values still spread evenly
+		int h = n * 0x9E3779B9;
+		h ^= h >>> 16;
+		return (h & 0x7FFFFFFF) % shards.length;
+	}
+}
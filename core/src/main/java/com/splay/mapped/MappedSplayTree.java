@@ -0,0 +1,768 @@
+package com.splay.mapped;
+
+import com.splay.SplayPolicy;
+import com.splay.opcount.OperationCounter;
+import com.splay.opcount.OperationCounter.Operation;
+import com.tree.SearchTree;
+import com.tree.Traversal;
+import com.tree.TreeDumper;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Splay tree implementation keeping its Nodes outside of the Java heap, in a
+ * memory-mapped file. Nodes are addressed by their index in the file rather
+ * than by reference, and hold their value along with the indices of their
+ * left and right children and of their parent (index {@code 0} standing for
+ * no Node). The file is mapped in fixed-size chunks, so the tree can grow
+ * past the heap size without adding to garbage collection, and is reopened
+ * as it was left, so it survives restarts. Files grow one chunk at a time,
+ * and are sparse on most file systems. Additions, searches and removals
+ * behave exactly as in {@code SplayTree}, and are counted the same way.
+ * @author Benjamin Vial (29590765)
+ * @see com.splay.SplayTree
+ */
+public class MappedSplayTree implements SearchTree, Closeable {
+	public static final byte[] MAGIC = { 'S', 'P', 'L', 'M' };
+	public static final byte VERSION = 1;
+	// Header: magic, version, then root, next unused index, free list and size
+	private static final int HEADER_SIZE = 64;
+	private static final int ROOT = 8;
+	private static final int NEXT = 12;
+	private static final int FREE = 16;
+	private static final int SIZE = 20;
+	// Node: value, left child, right child and parent
+	private static final int NODE_SIZE = 16;
+	private static final int VAL = 0;
+	private static final int LEFT = 4;
+	private static final int RIGHT = 8;
+	private static final int PARENT = 12;
+	// 2^22 Nodes (64 MiB) per chunk
+	private static final int CHUNK_BITS = 22;
+	private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+	private final FileChannel ch;
+	private MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+	private final TreeDumper<Integer> dumper = new TreeDumper<Integer>() {
+		@Override
+		protected void label(Integer i, Appendable out) throws IOException {
+			out.append(Integer.toString(val(i)));
+		}
+		
+		@Override
+		protected Integer left(Integer i) {
+			int l = MappedSplayTree.this.left(i);
+			return l == 0 ? null : l;
+		}
+		
+		@Override
+		protected Integer right(Integer i) {
+			int r = MappedSplayTree.this.right(i);
+			return r == 0 ? null : r;
+		}
+	};
+	private final MappedByteBuffer header;
+	private final OperationCounter opcount;
+	private final SplayPolicy policy;
+	
+	/**
+	 * Mapped splay tree Node handle. Holds the index and value of a Node at
+	 * the time it was returned.
+	 */
+	public class MappedNode implements IntNode {
+		private final int index;
+		private final int val;
+		
+		/**
+		 * Constructor.
+		 * @param i Node index
+		 * @param v Node value
+		 */
+		private MappedNode(int i, int v) {
+			index = i;
+			val = v;
+		}
+		
+		/**
+		 * @return Node index within the file
+		 */
+		public int index() {
+			return index;
+		}
+		
+		/**
+		 * Used to display the Node's value.
+		 */
+		@Override
+		public String toString() {
+			return "(" + val + ") ";
+		}
+		
+		/**
+		 * @return Node value
+		 */
+		public int val() {
+			return val;
+		}
+	}
+	
+	/**
+	 * Used to open the splay tree held in the specified file, or to create an
+	 * empty one if the file does not exist or is empty.
+	 * @param file The file backing the tree
+	 * @throws IOException If the file cannot be mapped
+	 * @throws NumberFormatException If the file does not hold a mapped splay
+	 * tree
+	 */
+	public MappedSplayTree(String file) throws IOException {
+		this(file, SplayPolicy.ALWAYS, new OperationCounter());
+	}
+	
+	/**
+	 * Used to open the splay tree held in the specified file, or to create an
+	 * empty one if the file does not exist or is empty, restructuring itself
+	 * on accesses according to the specified policy and recording its
+	 * operations with the specified counter.
+	 * @param file The file backing the tree
+	 * @param sp The splay policy to apply on accesses
+	 * @param oc The operation counter to record operations with
+	 * @throws IOException If the file cannot be mapped
+	 * @throws NumberFormatException If the file does not hold a mapped splay
+	 * tree
+	 */
+	public MappedSplayTree(String file, SplayPolicy sp, OperationCounter oc) throws IOException {
+		policy = sp;
+		opcount = oc;
+		ch = FileChannel.open(Paths.get(file), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			boolean empty = ch.size() == 0;
+			// Mapping would extend a shorter file, so the header is read and
+			// checked before the file is mapped
+			if (!empty) {
+				ByteBuffer bb = ByteBuffer.allocate(HEADER_SIZE);
+				boolean eof = false;
+				while (bb.hasRemaining() && !eof)
+					eof = ch.read(bb, bb.position()) == -1;
+				if (bb.hasRemaining())
+					throw new NumberFormatException("Not a mapped splay tree: '" + file + "'");
+				for (int i = 0; i < MAGIC.length; ++i)
+					if (bb.get(i) != MAGIC[i])
+						throw new NumberFormatException("Not a mapped splay tree: '" + file + "'");
+				if (bb.get(MAGIC.length) != VERSION)
+					throw new NumberFormatException("Unsupported mapped splay tree version "
+							+ bb.get(MAGIC.length));
+			}
+			header = ch.map(MapMode.READ_WRITE, 0, HEADER_SIZE);
+			if (empty) {
+				header.put(MAGIC);
+				header.put(VERSION);
+				header.putInt(NEXT, 1);
+			}
+			ensure(header.getInt(NEXT) - 1);
+		}
+		catch (IOException | RuntimeException e) {
+			ch.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Adds the specified value, then splays it to the top of the tree.
+	 * @param n The value to add to the tree
+	 * @return Handle on the created Node
+	 * @throws IllegalStateException If the file cannot grow
+	 */
+	@Override
+	public MappedNode add(int n) {
+		opcount.add();
+		long start = opcount.begin();
+		int rt = allocate(n);
+		int sn = root();
+		if (sn == 0)
+			setRoot(rt);
+		else {
+			int depth = 1;
+			// Iterative version, since Java does not optimize tail recursion
+			while (true) {
+				opcount.compare();
+				// Keep going left
+				if (n < val(sn)) {
+					if (left(sn) != 0) {
+						sn = left(sn);
+						++depth;
+						continue;
+					}
+					setLeft(sn, rt);
+				}
+				// Keep going right
+				else {
+					if (right(sn) != 0) {
+						sn = right(sn);
+						++depth;
+						continue;
+					}
+					setRight(sn, rt);
+				}
+				opcount.access(depth);
+				splay(rt);
+				break;
+			}
+		}
+		header.putInt(SIZE, header.getInt(SIZE) + 1);
+		opcount.end(Operation.ADD, start);
+		return new MappedNode(rt, n);
+	}
+	
+	/**
+	 * Writes every change back to the file, then closes it. The tree cannot
+	 * be used afterwards.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		}
+		finally {
+			chunks = new MappedByteBuffer[0];
+			ch.close();
+		}
+	}
+	
+	/**
+	 * @return The operation counter
+	 */
+	@Override
+	public OperationCounter counter() {
+		return opcount;
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dump(Appendable out, Traversal t) throws IOException {
+		dumper.dump(root() == 0 ? null : root(), t, out);
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public void dumpDot(Appendable out) throws IOException {
+		dumper.dumpDot(root() == 0 ? null : root(), out);
+	}
+	
+	/**
+	 * Unboxing form of {@code find(int)}.
+	 * @param n The value to search for
+	 * @return Handle on the Node containing the value ({@code null} if not
+	 * found)
+	 */
+	@Override
+	public MappedNode find(Integer n) {
+		return find(n.intValue());
+	}
+	
+	/**
+	 * Finds the specified value, then splays it to the top of the tree if the
+	 * policy says so. If it cannot be found, the last visited Node is splayed
+	 * instead.
+	 * @param n The value to search for
+	 * @return Handle on the Node containing the value ({@code null} if not
+	 * found)
+	 */
+	@Override
+	public MappedNode find(int n) {
+		opcount.find();
+		long start = opcount.begin();
+		int rt = find(n, policy);
+		opcount.end(Operation.FIND, start);
+		return rt == 0 ? null : new MappedNode(rt, val(rt));
+	}
+	
+	/**
+	 * Writes every change made so far back to the file.
+	 */
+	public void flush() {
+		header.force();
+		for (MappedByteBuffer mbb : chunks)
+			mbb.force();
+	}
+	
+	/**
+	 * Computes the height of the tree iteratively, one level at a time.
+	 * @return Height of the tree ({@code 0} if empty)
+	 */
+	@Override
+	public int height() {
+		if (root() == 0)
+			return 0;
+		int[] level = { root() };
+		int count = 1, height = 0;
+		while (count > 0) {
+			++height;
+			int[] next = new int[Math.min(2 * count, size())];
+			int n = 0;
+			for (int i = 0; i < count; ++i) {
+				if (left(level[i]) != 0)
+					next[n++] = left(level[i]);
+				if (right(level[i]) != 0)
+					next[n++] = right(level[i]);
+			}
+			level = next;
+			count = n;
+		}
+		return height;
+	}
+	
+	/**
+	 * Checks whether the tree is empty (i.e., it has no root).
+	 * @return {@code true} if empty, {@code false} otherwise.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return root() == 0;
+	}
+	
+	/**
+	 * @return The splay policy applied on accesses
+	 */
+	public SplayPolicy policy() {
+		return policy;
+	}
+	
+	/**
+	 * Finds and removes the specified value after splaying it to the top of
+	 * the tree. The freed Node is reused by later additions.
+	 * @param n The value to remove
+	 * @return Handle on the removed Node ({@code null} if not found)
+	 */
+	@Override
+	public MappedNode remove(int n) {
+		opcount.remove();
+		long start = opcount.begin();
+		MappedNode rt = null;
+		int sn = find(n, SplayPolicy.ALWAYS);
+		if (sn != 0) {
+			rt = new MappedNode(sn, val(sn));
+			int left = left(sn);
+			int right = right(sn);
+			if (left != 0)
+				setParent(left, 0);
+			if (right != 0)
+				setParent(right, 0);
+			join(left, right);
+			release(sn);
+			header.putInt(SIZE, header.getInt(SIZE) - 1);
+		}
+		opcount.end(Operation.REMOVE, start);
+		return rt;
+	}
+	
+	/**
+	 * Searches for the specified value without splaying.
+	 * @param n The value to search for
+	 * @return Depth of the Node containing the value if found, otherwise
+	 * {@code -1 - d}, where {@code d} is the depth of the last visited Node
+	 * ({@code -1} if the tree is empty)
+	 */
+	public int search(int n) {
+		opcount.find();
+		int sn = root();
+		if (sn == 0)
+			return -1;
+		int depth = 0;
+		while (true) {
+			opcount.compare();
+			if (val(sn) == n) {
+				opcount.access(depth);
+				return depth;
+			}
+			int next = n < val(sn) ? left(sn) : right(sn);
+			if (next == 0) {
+				opcount.access(depth);
+				return -1 - depth;
+			}
+			sn = next;
+			++depth;
+		}
+	}
+	
+	/**
+	 * @return Number of values in the tree, kept in the file header
+	 */
+	@Override
+	public int size() {
+		return header.getInt(SIZE);
+	}
+	
+	/**
+	 * @return Output of the {@code OperationCounter}'s {@code stats()} method
+	 */
+	@Override
+	public String stats() {
+		return opcount.stats();
+	}
+	
+	/**
+	 * Used to display the tree's contents.
+	 */
+	@Override
+	public String toString() {
+		return dumper.toString(root() == 0 ? null : root());
+	}
+	
+	/**
+	 * Takes a Node from the free list, or from the end of the file, and
+	 * initializes it with the specified value.
+	 * @param v The Node value
+	 * @return Index of the Node
+	 * @throws IllegalStateException If the file cannot grow
+	 */
+	private int allocate(int v) {
+		int i = header.getInt(FREE);
+		if (i != 0)
+			header.putInt(FREE, left(i));
+		else {
+			i = header.getInt(NEXT);
+			if (i == Integer.MAX_VALUE)
+				throw new IllegalStateException("Mapped splay tree is full");
+			try {
+				ensure(i);
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Could not grow mapped splay tree: " + e.getMessage(), e);
+			}
+			header.putInt(NEXT, i + 1);
+		}
+		MappedByteBuffer mbb = chunk(i);
+		int p = offset(i);
+		mbb.putInt(p + VAL, v);
+		mbb.putInt(p + LEFT, 0);
+		mbb.putInt(p + RIGHT, 0);
+		mbb.putInt(p + PARENT, 0);
+		return i;
+	}
+	
+	/**
+	 * @param i Node index
+	 * @return The chunk holding the Node
+	 */
+	private MappedByteBuffer chunk(int i) {
+		return chunks[i >>> CHUNK_BITS];
+	}
+	
+	/**
+	 * Maps chunks until the specified Node is mapped.
+	 * @param i Node index
+	 * @throws IOException If the file cannot be mapped
+	 */
+	private void ensure(int i) throws IOException {
+		int n = (i >>> CHUNK_BITS) + 1;
+		if (n <= chunks.length)
+			return;
+		int k = chunks.length;
+		chunks = Arrays.copyOf(chunks, n);
+		for (; k < n; ++k)
+			chunks[k] = ch.map(MapMode.READ_WRITE, HEADER_SIZE + ((long) k << CHUNK_BITS) * NODE_SIZE,
+					(long) NODE_SIZE << CHUNK_BITS);
+	}
+	
+	/**
+	 * Finds the specified value, then splays it to the top of the tree if the
+	 * given policy says so. If it cannot be found, the last visited Node is
+	 * splayed instead.
+	 * @param n The value to search for
+	 * @param sp The splay policy to apply
+	 * @return Index of the Node containing the value ({@code 0} if not found)
+	 */
+	private int find(int n, SplayPolicy sp) {
+		int sn = root();
+		if (sn == 0)
+			return 0;
+		int rt = 0;
+		int depth = 0;
+		// Iterative version, since Java does not optimize tail recursion
+		while (true) {
+			opcount.compare();
+			// Key was found
+			if (val(sn) == n) {
+				rt = sn;
+				break;
+			}
+			int next = n < val(sn) ? left(sn) : right(sn);
+			if (next == 0)
+				break;
+			sn = next;
+			++depth;
+		}
+		opcount.access(depth);
+		if (sp.shouldSplay(depth)) {
+			if (sp.isSemi())
+				semiSplay(sn);
+			else
+				splay(sn);
+		}
+		return rt;
+	}
+	
+	/**
+	 * Joins two detached subtrees under a single root, assuming every value
+	 * of the left subtree is no greater than every value of the right one.
+	 * @param left The left subtree ({@code 0} if empty)
+	 * @param right The right subtree ({@code 0} if empty)
+	 */
+	private void join(int left, int right) {
+		if (left == 0) {
+			setRoot(right);
+			return;
+		}
+		setRoot(left);
+		int max = left;
+		while (right(max) != 0)
+			max = right(max);
+		splay(max);
+		setRight(max, right);
+	}
+	
+	/**
+	 * @param i Node index
+	 * @return Index of the left child ({@code 0} if none)
+	 */
+	private int left(int i) {
+		return chunk(i).getInt(offset(i) + LEFT);
+	}
+	
+	/**
+	 * @param i Node index
+	 * @return Offset of the Node within its chunk
+	 */
+	private static int offset(int i) {
+		return (i & CHUNK_MASK) * NODE_SIZE;
+	}
+	
+	/**
+	 * @param i Node index
+	 * @return Index of the parent ({@code 0} if none)
+	 */
+	private int parent(int i) {
+		return chunk(i).getInt(offset(i) + PARENT);
+	}
+	
+	/**
+	 * Puts the specified Node on the free list.
+	 * @param i Node index
+	 */
+	private void release(int i) {
+		chunk(i).putInt(offset(i) + LEFT, header.getInt(FREE));
+		header.putInt(FREE, i);
+	}
+	
+	/**
+	 * @param i Node index
+	 * @return Index of the right child ({@code 0} if none)
+	 */
+	private int right(int i) {
+		return chunk(i).getInt(offset(i) + RIGHT);
+	}
+	
+	/**
+	 * @return Index of the root ({@code 0} if the tree is empty)
+	 */
+	private int root() {
+		return header.getInt(ROOT);
+	}
+	
+	/**
+	 * Rotates the specified Node above its parent, updating the root or the
+	 * grandparent as needed.
+	 * @param sn The Node to rotate
+	 */
+	private void rotate(int sn) {
+		int parent = parent(sn);
+		int grandparent = parent(parent);
+		opcount.compare();
+		// Rotate right
+		if (left(parent) == sn) {
+			setLeft(parent, right(sn));
+			setRight(sn, parent);
+		}
+		// Rotate left
+		else {
+			setRight(parent, left(sn));
+			setLeft(sn, parent);
+		}
+		if (grandparent == 0)
+			setRoot(sn);
+		else if (left(grandparent) == parent)
+			setLeft(grandparent, sn);
+		else
+			setRight(grandparent, sn);
+	}
+	
+	/**
+	 * Brings the specified Node closer to the top of the tree by semi-splaying
+	 * it, as {@code SplayTree} does.
+	 * @param sn The Node to semi-splay
+	 */
+	private void semiSplay(int sn) {
+		int it = sn;
+		int rotations = 0;
+		while (parent(it) != 0) {
+			int parent = parent(it);
+			int grandparent = parent(parent);
+			// Zig
+			if (grandparent == 0) {
+				rotate(it);
+				++rotations;
+				break;
+			}
+			opcount.compare();
+			// Zig-zig, rotating the parent only
+			if ((left(parent) == it) == (left(grandparent) == parent)) {
+				rotate(parent);
+				it = parent;
+				++rotations;
+			}
+			// Zig-zag
+			else {
+				rotate(it);
+				rotate(it);
+				rotations += 2;
+			}
+		}
+		opcount.splay(rotations);
+	}
+	
+	/**
+	 * Sets the left child of the specified Node, also setting the child's
+	 * parent if necessary.
+	 * @param i Node index
+	 * @param c Index of the new left child ({@code 0} for none)
+	 */
+	private void setLeft(int i, int c) {
+		chunk(i).putInt(offset(i) + LEFT, c);
+		if (c != 0)
+			setParent(c, i);
+	}
+	
+	/**
+	 * Sets the parent of the specified Node.
+	 * @param i Node index
+	 * @param p Index of the new parent ({@code 0} for none)
+	 */
+	private void setParent(int i, int p) {
+		opcount.parentChange();
+		chunk(i).putInt(offset(i) + PARENT, p);
+	}
+	
+	/**
+	 * Sets the right child of the specified Node, also setting the child's
+	 * parent if necessary.
+	 * @param i Node index
+	 * @param c Index of the new right child ({@code 0} for none)
+	 */
+	private void setRight(int i, int c) {
+		chunk(i).putInt(offset(i) + RIGHT, c);
+		if (c != 0)
+			setParent(c, i);
+	}
+	
+	/**
+	 * Makes the specified Node the root of the tree.
+	 * @param i Node index ({@code 0} to empty the tree)
+	 */
+	private void setRoot(int i) {
+		header.putInt(ROOT, i);
+		if (i != 0 && parent(i) != 0)
+			setParent(i, 0);
+	}
+	
+	/**
+	 * Brings the specified Node to the top of the tree by performing a chain
+	 * of rotations, as {@code SplayTree} does.
+	 * @param sn The Node to splay
+	 */
+	private void splay(int sn) {
+		int rotations = 0;
+		// Iterative version, since Java does not optimize tail recursion
+		while (parent(sn) != 0) {
+			int parent = parent(sn);
+			int grandparent = parent(parent);
+			opcount.compare();
+			boolean snLeft = left(parent) == sn;
+			// Zig
+			if (grandparent == 0) {
+				if (snLeft) {
+					setLeft(parent, right(sn));
+					setRight(sn, parent);
+				}
+				else {
+					setRight(parent, left(sn));
+					setLeft(sn, parent);
+				}
+				setRoot(sn);
+				++rotations;
+				continue;
+			}
+			int greatgrandparent = parent(grandparent);
+			opcount.compare();
+			boolean parentLeft = left(grandparent) == parent;
+			// Zig-zig right
+			if (snLeft && parentLeft) {
+				setLeft(grandparent, right(parent));
+				setLeft(parent, right(sn));
+				setRight(parent, grandparent);
+				setRight(sn, parent);
+			}
+			// Zig-zig left
+			else if (!snLeft && !parentLeft) {
+				setRight(grandparent, left(parent));
+				setLeft(parent, grandparent);
+				setRight(parent, left(sn));
+				setLeft(sn, parent);
+			}
+			// Zig-zag left
+			else if (snLeft) {
+				setRight(grandparent, left(sn));
+				setLeft(parent, right(sn));
+				setLeft(sn, grandparent);
+				setRight(sn, parent);
+			}
+			// Zig-zag right
+			else {
+				setLeft(grandparent, right(sn));
+				setRight(parent, left(sn));
+				setLeft(sn, parent);
+				setRight(sn, grandparent);
+			}
+			rotations += 2;
+			// Update root, or great-grandparent
+			if (greatgrandparent == 0)
+				setRoot(sn);
+			else {
+				opcount.compare();
+				if (left(greatgrandparent) == grandparent)
+					setLeft(greatgrandparent, sn);
+				else
+					setRight(greatgrandparent, sn);
+			}
+		}
+		opcount.splay(rotations);
+	}
+	
+	/**
+	 * @param i Node index
+	 * @return Node value
+	 */
+	private int val(int i) {
+		return chunk(i).getInt(offset(i) + VAL);
+	}
+}
@@ -0,0 +1,164 @@
+package com.splay.opcount;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe operation counter, for trees shared between threads. Uses
+ * {@code LongAdder} counters, which keep contended increments cheap.
+ * @author Benjamin Vial (29590765)
+ * @see OperationCounter
+ */
+public class ConcurrentOperationCounter extends OperationCounter {
+	private final LongAdder countAdd = new LongAdder(),
+				countCompare = new LongAdder(),
+				countEviction = new LongAdder(),
+				countFind = new LongAdder(),
+				countHit = new LongAdder(),
+				countMiss = new LongAdder(),
+				countParentChange = new LongAdder(),
+				countRemove = new LongAdder();
+	
+	/**
+	 * Increments the counter for the add operations.
+	 */
+	@Override
+	public void add() {
+		countAdd.increment();
+	}
+	
+	/**
+	 * @return Number of add operations counted so far
+	 */
+	@Override
+	public long adds() {
+		return countAdd.sum();
+	}
+	
+	/**
+	 * Increments the counter for the compare operations.
+	 */
+	@Override
+	public void compare() {
+		countCompare.increment();
+	}
+	
+	/**
+	 * @return Number of compare operations counted so far
+	 */
+	@Override
+	public long compares() {
+		return countCompare.sum();
+	}
+	
+	/**
+	 * Increments the counter for the cache evictions.
+	 */
+	@Override
+	public void evict() {
+		countEviction.increment();
+	}
+	
+	/**
+	 * @return Number of cache evictions counted so far
+	 */
+	@Override
+	public long evictions() {
+		return countEviction.sum();
+	}
+	
+	/**
+	 * Increments the counter for the find operations.
+	 */
+	@Override
+	public void find() {
+		countFind.increment();
+	}
+	
+	/**
+	 * @return Number of find operations counted so far
+	 */
+	@Override
+	public long finds() {
+		return countFind.sum();
+	}
+	
+	/**
+	 * Increments the counter for the cache hits.
+	 */
+	@Override
+	public void hit() {
+		countHit.increment();
+	}
+	
+	/**
+	 * @return Number of cache hits counted so far
+	 */
+	@Override
+	public long hits() {
+		return countHit.sum();
+	}
+	
+	/**
+	 * @return {@code true}, since every counter is a {@code LongAdder}
+	 */
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+	
+	/**
+	 * Increments the counter for the cache misses.
+	 */
+	@Override
+	public void miss() {
+		countMiss.increment();
+	}
+	
+	/**
+	 * @return Number of cache misses counted so far
+	 */
+	@Override
+	public long misses() {
+		return countMiss.sum();
+	}
+	
+	/**
+	 * Increments the counter for the parent change operations.
+	 */
+	@Override
+	public void parentChange() {
+		countParentChange.increment();
+	}
+	
+	/**
+	 * @return Number of parent change operations counted so far
+	 */
+	@Override
+	public long parentChanges() {
+		return countParentChange.sum();
+	}
+	
+	/**
+	 * Increments the counter for the remove operations.
+	 */
+	@Override
+	public void remove() {
+		countRemove.increment();
+	}
+	
+	/**
+	 * @return Number of remove operations counted so far
+	 */
+	@Override
+	public long removes() {
+		return countRemove.sum();
+	}
+	
+	/**
+	 * @return Operation count for display purposes
+	 */
+	@Override
+	public synchronized String stats() {
+		return super.stats();
+	}
+}
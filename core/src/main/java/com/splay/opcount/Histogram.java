@@ -0,0 +1,155 @@
+package com.splay.opcount;
+
+/**
+ * Histogram of non-negative values with bounded relative error, in the style
+ * of HdrHistogram. Values below 128 are counted exactly; larger values fall
+ * into buckets whose width is 1/64 of their magnitude, so that percentiles
+ * stay within about 1.6% of the exact value while the histogram keeps a fixed
+ * size. Not thread-safe.
+ * @author Benjamin Vial (29590765)
+ * @see HistogramOperationCounter
+ */
+public class Histogram {
+	private static final int SUB_BITS = 7;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	private static final int HALF_COUNT = SUB_COUNT / 2;
+	private static final int SIZE = SUB_COUNT + (64 - SUB_BITS) * HALF_COUNT;
+	private long count;
+	private final long[] counts;
+	private long max;
+	private long min;
+	private long sum;
+	
+	/**
+	 * Default constructor. Creates an empty histogram.
+	 */
+	public Histogram() {
+		counts = new long[SIZE];
+		reset();
+	}
+	
+	/**
+	 * Used to create a copy of the specified histogram.
+	 * @param h The histogram to copy
+	 */
+	public Histogram(Histogram h) {
+		counts = h.counts.clone();
+		count = h.count;
+		max = h.max;
+		min = h.min;
+		sum = h.sum;
+	}
+	
+	/**
+	 * @return Number of values recorded
+	 */
+	public long count() {
+		return count;
+	}
+	
+	/**
+	 * @return Largest value recorded ({@code 0} if empty)
+	 */
+	public long max() {
+		return max;
+	}
+	
+	/**
+	 * @return Average of the values recorded ({@code 0} if empty)
+	 */
+	public double mean() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+	
+	/**
+	 * @return Smallest value recorded ({@code 0} if empty)
+	 */
+	public long min() {
+		return count == 0 ? 0 : min;
+	}
+	
+	/**
+	 * Finds the value below which the specified percentage of the recorded
+	 * values fall.
+	 * @param p Percentage, between {@code 0} and {@code 100}
+	 * @return The percentile value ({@code 0} if empty)
+	 * @throws IllegalArgumentException If the percentage is out of range
+	 */
+	public long percentile(double p) {
+		if (!(p >= 0.0 && p <= 100.0))
+			throw new IllegalArgumentException("Invalid percentile: " + p);
+		if (count == 0)
+			return 0;
+		long target = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+		long seen = 0;
+		for (int i = 0; i < SIZE; ++i) {
+			seen += counts[i];
+			if (seen >= target)
+				return Math.min(Math.max(highest(i), min), max);
+		}
+		return max;
+	}
+	
+	/**
+	 * Records a single value.
+	 * @param v The value to record (negative values are recorded as {@code 0})
+	 */
+	public void record(long v) {
+		if (v < 0)
+			v = 0;
+		++counts[index(v)];
+		++count;
+		sum += v;
+		if (v > max)
+			max = v;
+		if (v < min)
+			min = v;
+	}
+	
+	/**
+	 * Empties the histogram.
+	 */
+	public void reset() {
+		for (int i = 0; i < SIZE; ++i)
+			counts[i] = 0;
+		count = max = sum = 0;
+		min = Long.MAX_VALUE;
+	}
+	
+	/**
+	 * Used to display the histogram's summary.
+	 */
+	@Override
+	public String toString() {
+		return "count=" + count + " min=" + min() + " mean=" + String.format("%.1f", mean())
+				+ " p50=" + percentile(50) + " p99=" + percentile(99)
+				+ " p999=" + percentile(99.9) + " max=" + max;
+	}
+	
+	/**
+	 * Finds the highest value falling into the specified bucket.
+	 * @param i Bucket index
+	 * @return The highest equivalent value
+	 */
+	private static long highest(int i) {
+		if (i < SUB_COUNT)
+			return i;
+		int k = i - SUB_COUNT;
+		int shift = k / HALF_COUNT + 1;
+		long sub = k % HALF_COUNT + HALF_COUNT;
+		return ((sub + 1) << shift) - 1;
+	}
+	
+	/**
+	 * Finds the bucket the specified value falls into.
+	 * @param v The value to look for
+	 * @return Bucket index
+	 */
+	private static int index(long v) {
+		if (v < SUB_COUNT)
+			return (int) v;
+		int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS + 1;
+		int sub = (int) (v >>> shift);
+		return SUB_COUNT + (shift - 1) * HALF_COUNT + (sub - HALF_COUNT);
+	}
+}
@@ -0,0 +1,137 @@
+package com.splay.opcount;
+
+/**
+ * Operation counter that also tracks distributions: the wall time of each
+ * operation type, the depth of each access and the number of rotations of
+ * each splay. Distributions can be captured as a structured snapshot, and
+ * reset. Not thread-safe.
+ * @author Benjamin Vial (29590765)
+ * @see Histogram, OperationCounter
+ */
+public class HistogramOperationCounter extends OperationCounter {
+	private final Histogram depth = new Histogram();
+	private final Histogram rotations = new Histogram();
+	private final Histogram[] time = new Histogram[Operation.values().length];
+	
+	/**
+	 * Immutable snapshot of the distributions tracked by the counter.
+	 */
+	public static class Snapshot {
+		private final Histogram depth;
+		private final Histogram rotations;
+		private final Histogram[] time;
+		
+		/**
+		 * Constructor. Copies the specified counter's histograms.
+		 * @param hoc The counter to copy from
+		 */
+		private Snapshot(HistogramOperationCounter hoc) {
+			depth = new Histogram(hoc.depth);
+			rotations = new Histogram(hoc.rotations);
+			time = new Histogram[hoc.time.length];
+			for (int i = 0; i < time.length; ++i)
+				time[i] = new Histogram(hoc.time[i]);
+		}
+		
+		/**
+		 * @return Copy of the access depth distribution
+		 */
+		public Histogram depth() {
+			return new Histogram(depth);
+		}
+		
+		/**
+		 * @return Copy of the distribution of rotations per splay
+		 */
+		public Histogram rotations() {
+			return new Histogram(rotations);
+		}
+		
+		/**
+		 * @param op The operation type
+		 * @return Copy of the wall time distribution of the operation type, in
+		 * nanoseconds
+		 */
+		public Histogram time(Operation op) {
+			return new Histogram(time[op.ordinal()]);
+		}
+		
+		/**
+		 * Used to display the snapshot's contents.
+		 */
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			for (Operation op : Operation.values())
+				sb.append(op + " time (ns)\t" + time[op.ordinal()] + "\n");
+			sb.append("Access depth\t" + depth + "\n");
+			sb.append("Rotations\t" + rotations + "\n");
+			return sb.toString();
+		}
+	}
+	
+	/**
+	 * Constructor.
+	 */
+	public HistogramOperationCounter() {
+		for (int i = 0; i < time.length; ++i)
+			time[i] = new Histogram();
+	}
+	
+	/**
+	 * Records the depth of an access.
+	 */
+	@Override
+	public void access(int d) {
+		depth.record(d);
+	}
+	
+	/**
+	 * @return Current time, in nanoseconds
+	 */
+	@Override
+	public long begin() {
+		return System.nanoTime();
+	}
+	
+	/**
+	 * Records the wall time of an operation.
+	 */
+	@Override
+	public void end(Operation op, long start) {
+		time[op.ordinal()].record(System.nanoTime() - start);
+	}
+	
+	/**
+	 * Empties every distribution. Operation counts are kept.
+	 */
+	public void reset() {
+		depth.reset();
+		rotations.reset();
+		for (Histogram h : time)
+			h.reset();
+	}
+	
+	/**
+	 * @return Snapshot of the distributions tracked so far
+	 */
+	public Snapshot snapshot() {
+		return new Snapshot(this);
+	}
+	
+	/**
+	 * Records the number of rotations of a splay.
+	 */
+	@Override
+	public void splay(int r) {
+		rotations.record(r);
+	}
+	
+	/**
+	 * @return Operation count and distribution summaries for display purposes
+	 */
+	@Override
+	public String stats() {
+		return super.stats() + "\n" + snapshot();
+	}
+}
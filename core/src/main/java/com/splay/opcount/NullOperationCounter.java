@@ -0,0 +1,74 @@
+package com.splay.opcount;
+
+/**
+ * Operation counter that counts nothing. Its methods are empty, so that the
+ * JIT compiler can remove the instrumentation from the trees' hot paths
+ * entirely.
+ * @author Benjamin Vial (29590765)
+ * @see OperationCounter
+ */
+public class NullOperationCounter extends OperationCounter {
+	/**
+	 * Does nothing.
+	 */
+	@Override
+	public void add() { }
+	
+	/**
+	 * Does nothing.
+	 */
+	@Override
+	public void compare() { }
+	
+	/**
+	 * Does nothing.
+	 */
+	@Override
+	public void evict() { }
+	
+	/**
+	 * Does nothing.
+	 */
+	@Override
+	public void find() { }
+	
+	/**
+	 * Does nothing.
+	 */
+	@Override
+	public void hit() { }
+	
+	/**
+	 * @return {@code true}, since nothing is counted
+	 */
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+	
+	/**
+	 * Does nothing.
+	 */
+	@Override
+	public void miss() { }
+	
+	/**
+	 * Does nothing.
+	 */
+	@Override
+	public void parentChange() { }
+	
+	/**
+	 * Does nothing.
+	 */
+	@Override
+	public void remove() { }
+	
+	/**
+	 * @return Notice that operations are not counted
+	 */
+	@Override
+	public String stats() {
+		return "Operation counting is disabled\n";
+	}
+}
@@ -0,0 +1,198 @@
+package com.splay.opcount;
+
+import java.text.NumberFormat;
+
+/**
+ * Simple operation counter for the splay and AVL tree implementations. Keeps a
+ * running count of certain operations (and of cache hits, misses and
+ * evictions, for splay caches) for easy output. Not thread-safe; see
+ * {@code ConcurrentOperationCounter} for trees shared between threads, and
+ * {@code NullOperationCounter} to turn counting off and
+ * {@code HistogramOperationCounter} to track latency distributions.
+ * @author Benjamin Vial (29590765)
+ * @see SplayTree, AVLTree
+ */
+public class OperationCounter {
+	private long countAdd,
+				countCompare,
+				countEviction,
+				countFind,
+				countHit,
+				countMiss,
+				countParentChange,
+				countRemove = 0;
+	private final String HEADER = "Total number of tree operations:\n"
+			+ "--------------------------------\n";
+	private final NumberFormat NF = NumberFormat.getNumberInstance();
+	
+	/**
+	 * Timed operation types.
+	 */
+	public enum Operation { ADD, FIND, REMOVE }
+	
+	/**
+	 * Records the depth of an access. Does nothing by default.
+	 * @param d Depth of the accessed Node (the root has depth 0)
+	 */
+	public void access(int d) { }
+	
+	/**
+	 * Increments the counter for the add operations.
+	 */
+	public void add() {
+		++countAdd;
+	}
+	
+	/**
+	 * @return Number of add operations counted so far
+	 */
+	public long adds() {
+		return countAdd;
+	}
+	
+	/**
+	 * Marks the start of a timed operation. Does not read the clock by default.
+	 * @return Start time, to be passed to {@code end()}
+	 */
+	public long begin() {
+		return 0;
+	}
+	
+	/**
+	 * Increments the counter for the compare operations.
+	 */
+	public void compare() {
+		++countCompare;
+	}
+	
+	/**
+	 * @return Number of compare operations counted so far
+	 */
+	public long compares() {
+		return countCompare;
+	}
+	
+	/**
+	 * Marks the end of a timed operation. Does nothing by default.
+	 * @param op The operation type
+	 * @param start Start time, as returned by {@code begin()}
+	 */
+	public void end(Operation op, long start) { }
+	
+	/**
+	 * Increments the counter for the cache evictions.
+	 */
+	public void evict() {
+		++countEviction;
+	}
+	
+	/**
+	 * @return Number of cache evictions counted so far
+	 */
+	public long evictions() {
+		return countEviction;
+	}
+	
+	/**
+	 * Increments the counter for the find operations.
+	 */
+	public void find() {
+		++countFind;
+	}
+	
+	/**
+	 * @return Number of find operations counted so far
+	 */
+	public long finds() {
+		return countFind;
+	}
+	
+	/**
+	 * Increments the counter for the cache hits.
+	 */
+	public void hit() {
+		++countHit;
+	}
+	
+	/**
+	 * @return Number of cache hits counted so far
+	 */
+	public long hits() {
+		return countHit;
+	}
+	
+	/**
+	 * @return {@code true} if the counter can be shared between threads,
+	 * {@code false} otherwise (the default)
+	 */
+	public boolean isThreadSafe() {
+		return false;
+	}
+	
+	/**
+	 * Increments the counter for the cache misses.
+	 */
+	public void miss() {
+		++countMiss;
+	}
+	
+	/**
+	 * @return Number of cache misses counted so far
+	 */
+	public long misses() {
+		return countMiss;
+	}
+	
+	/**
+	 * Increments the counter for the parent change operations.
+	 */
+	public void parentChange() {
+		++countParentChange;
+	}
+	
+	/**
+	 * @return Number of parent change operations counted so far
+	 */
+	public long parentChanges() {
+		return countParentChange;
+	}
+	
+	/**
+	 * Increments the counter for the remove operations.
+	 */
+	public void remove() {
+		++countRemove;
+	}
+	
+	/**
+	 * @return Number of remove operations counted so far
+	 */
+	public long removes() {
+		return countRemove;
+	}
+	
+	/**
+	 * Records the number of rotations of a splay. Does nothing by default.
+	 * @param r Number of rotations
+	 */
+	public void splay(int r) { }
+	
+	/**
+	 * @return Operation count for display purposes
+	 */
+	public String stats() {
+		StringBuilder stats = new StringBuilder(HEADER);
+		stats.append("Add\t\t\t" + NF.format(adds()) + "\n");
+		stats.append("Compare\t\t\t" + NF.format(compares()) + "\n");
+		stats.append("Find\t\t\t" + NF.format(finds()) + "\n");
+		stats.append("Parent change\t\t" + NF.format(parentChanges()) +"\n");
+		stats.append("Remove\t\t\t" + NF.format(removes()) + "\n");
+		// Only caches hit, miss and evict
+		if (hits() + misses() + evictions() > 0) {
+			stats.append("Cache hit\t\t" + NF.format(hits()) + "\n");
+			stats.append("Cache miss\t\t" + NF.format(misses()) + "\n");
+			stats.append("Cache eviction\t\t" + NF.format(evictions()) + "\n");
+		}
+		return stats.toString();
+	}
+}
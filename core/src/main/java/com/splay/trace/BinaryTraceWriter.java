@@ -0,0 +1,117 @@
+package com.splay.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writer for the compact binary operation format. The format starts with a
+ * header made of the {@code MAGIC} bytes, a version byte and a flags byte,
+ * followed by one record per operation: the operation code as a single byte,
+ * then the value as a zigzag-encoded variable-length integer. When the
+ * {@code FLAG_DELTA} flag is set, each value is stored as the difference
+ * with the previous value instead.
+ * @author Benjamin Vial (29590765)
+ * @see TraceReader
+ */
+public class BinaryTraceWriter implements OperationHandler, Closeable {
+	public static final int FLAG_DELTA = 1;
+	public static final byte[] MAGIC = { 'S', 'P', 'L', 'T' };
+	public static final int MAX_RECORD_SIZE = 6;
+	public static final byte VERSION = 1;
+	private static final int BUFFER_SIZE = 1 << 16;
+	private final ByteBuffer bb = ByteBuffer.allocate(BUFFER_SIZE);
+	private final WritableByteChannel ch;
+	private final boolean delta;
+	private int previous;
+	
+	/**
+	 * Constructor. Writes the format header to the specified channel.
+	 * @param ch The channel to write operations to
+	 * @param delta Whether values should be delta-encoded
+	 * @throws IOException If the channel cannot be written to
+	 */
+	public BinaryTraceWriter(WritableByteChannel ch, boolean delta) throws IOException {
+		this.ch = ch;
+		this.delta = delta;
+		bb.put(MAGIC);
+		bb.put(VERSION);
+		bb.put((byte) (delta ? FLAG_DELTA : 0));
+	}
+	
+	/**
+	 * Constructor. Creates or truncates the specified file, then writes the
+	 * format header to it.
+	 * @param file The file to write operations to
+	 * @param delta Whether values should be delta-encoded
+	 * @throws IOException If the file cannot be written to
+	 */
+	public BinaryTraceWriter(String file, boolean delta) throws IOException {
+		this(FileChannel.open(Paths.get(file), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), delta);
+	}
+	
+	/**
+	 * Converts the specified operation file to the binary format.
+	 * @param in The operation file to convert (text or binary)
+	 * @param out The binary file to write
+	 * @param delta Whether values should be delta-encoded
+	 * @return Number of operations converted
+	 * @throws IOException If either file cannot be accessed
+	 */
+	public static long convert(String in, String out, boolean delta) throws IOException {
+		try (BinaryTraceWriter btw = new BinaryTraceWriter(out, delta)) {
+			return new TraceReader(btw).read(in);
+		}
+	}
+	
+	/**
+	 * Flushes any buffered operation, then closes the underlying channel.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		}
+		finally {
+			ch.close();
+		}
+	}
+	
+	/**
+	 * Writes any buffered operation to the underlying channel.
+	 * @throws IOException If the channel cannot be written to
+	 */
+	public void flush() throws IOException {
+		bb.flip();
+		while (bb.hasRemaining())
+			ch.write(bb);
+		bb.clear();
+	}
+	
+	/**
+	 * Buffers a single operation, flushing the buffer when full.
+	 */
+	@Override
+	public void handle(char op, int n) throws IOException {
+		if (bb.remaining() < MAX_RECORD_SIZE)
+			flush();
+		int v = n;
+		if (delta) {
+			v = n - previous;
+			previous = n;
+		}
+		bb.put((byte) op);
+		// Zigzag encoding keeps small negative values short
+		int z = (v << 1) ^ (v >> 31);
+		while ((z & ~0x7F) != 0) {
+			bb.put((byte) ((z & 0x7F) | 0x80));
+			z >>>= 7;
+		}
+		bb.put((byte) z);
+	}
+}
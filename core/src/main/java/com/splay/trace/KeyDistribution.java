@@ -0,0 +1,169 @@
+package com.splay.trace;
+
+import java.util.SplittableRandom;
+
+/**
+ * Key distribution for synthetic operations. Draws keys within
+ * {@code [0, n)}; some distributions keep state between draws (e.g., the
+ * position of a scan), so each generator should use its own instance.
+ * @author Benjamin Vial (29590765)
+ * @see TraceGenerator
+ */
+public abstract class KeyDistribution {
+	protected final int n;
+	
+	/**
+	 * Constructor.
+	 * @param n Size of the key space
+	 * @throws IllegalArgumentException If the key space is empty
+	 */
+	protected KeyDistribution(int n) {
+		if (n <= 0)
+			throw new IllegalArgumentException("Invalid key space size: " + n);
+		this.n = n;
+	}
+	
+	/**
+	 * Used to create a distribution drawing keys uniformly from a small hot
+	 * set, which moves to a random region of the key space every so often.
+	 * @param n Size of the key space
+	 * @param size Number of keys in the hot set
+	 * @param period Number of draws before the hot set moves
+	 * @return Resulting distribution
+	 * @throws IllegalArgumentException If the hot set size or period is not
+	 * positive
+	 */
+	public static KeyDistribution hotSet(int n, int size, long period) {
+		if (size <= 0 || period <= 0)
+			throw new IllegalArgumentException("Invalid hot set: " + size + " keys every " + period + " draws");
+		return new KeyDistribution(n) {
+			private final int w = Math.min(size, n);
+			private int base;
+			private long draws;
+			
+			@Override
+			public int next(SplittableRandom r) {
+				if (draws++ % period == 0)
+					base = r.nextInt(n);
+				return (int) ((base + (long) r.nextInt(w)) % n);
+			}
+		};
+	}
+	
+	/**
+	 * Used to create a distribution scanning the keys in increasing order,
+	 * wrapping around.
+	 * @param n Size of the key space
+	 * @return Resulting distribution
+	 */
+	public static KeyDistribution sequential(int n) {
+		return new KeyDistribution(n) {
+			private int next;
+			
+			@Override
+			public int next(SplittableRandom r) {
+				int k = next;
+				next = next == n - 1 ? 0 : next + 1;
+				return k;
+			}
+		};
+	}
+	
+	/**
+	 * Used to create a distribution where every key is equally likely.
+	 * @param n Size of the key space
+	 * @return Resulting distribution
+	 */
+	public static KeyDistribution uniform(int n) {
+		return new KeyDistribution(n) {
+			@Override
+			public int next(SplittableRandom r) {
+				return r.nextInt(n);
+			}
+		};
+	}
+	
+	/**
+	 * Used to create a distribution where the key of rank {@code k} is drawn
+	 * with a probability proportional to {@code 1 / k^s}. Ranks are scattered
+	 * over the key space so that popular keys are not neighbours. Draws take
+	 * constant time and memory, whatever the size of the key space
+	 * (rejection-inversion sampling, after Hormann and Derflinger).
+	 * @param n Size of the key space
+	 * @param s The exponent, e.g. {@code 1} for the classic Zipf law
+	 * @return Resulting distribution
+	 * @throws IllegalArgumentException If the exponent is not positive
+	 */
+	public static KeyDistribution zipf(int n, double s) {
+		if (!(s > 0.0))
+			throw new IllegalArgumentException("Invalid Zipf exponent: " + s);
+		return new KeyDistribution(n) {
+			private final double hx1 = hIntegral(1.5, s) - 1.0;
+			private final double hn = hIntegral(n + 0.5, s);
+			private final double threshold = 2.0 - hIntegralInverse(hIntegral(2.5, s) - Math.exp(-s * Math.log(2.0)), s);
+			
+			@Override
+			public int next(SplittableRandom r) {
+				while (true) {
+					double u = hn + r.nextDouble() * (hx1 - hn);
+					double x = hIntegralInverse(u, s);
+					long k = Math.max(1, Math.min(n, (long) (x + 0.5)));
+					if (k - x <= threshold || u >= hIntegral(k + 0.5, s) - Math.exp(-s * Math.log(k)))
+						return scatter((int) (k - 1), n);
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Draws the next key.
+	 * @param r The random number generator to draw from
+	 * @return A key within {@code [0, n)}
+	 */
+	public abstract int next(SplittableRandom r);
+	
+	/**
+	 * @return Size of the key space
+	 */
+	public int size() {
+		return n;
+	}
+	
+	/**
+	 * Integral of {@code 1 / x^s}, shifted so that it is well-defined for
+	 * {@code s = 1}.
+	 * @param x The upper bound
+	 * @param s The exponent
+	 * @return The integral from {@code 1} to {@code x}
+	 */
+	private static double hIntegral(double x, double s) {
+		double lx = Math.log(x);
+		double t = (1.0 - s) * lx;
+		// expm1(t) / t, with its series expansion near 0
+		double e = Math.abs(t) > 1e-8 ? Math.expm1(t) / t : 1.0 + t * 0.5 * (1.0 + t / 3.0 * (1.0 + 0.25 * t));
+		return e * lx;
+	}
+	
+	/**
+	 * Inverse of {@code hIntegral}.
+	 * @param x The integral value
+	 * @param s The exponent
+	 * @return The upper bound giving that integral
+	 */
+	private static double hIntegralInverse(double x, double s) {
+		double t = Math.max(-1.0, x * (1.0 - s));
+		// log1p(t) / t, with its series expansion near 0
+		double l = Math.abs(t) > 1e-8 ? Math.log1p(t) / t : 1.0 - t * (0.5 - t * (1.0 / 3.0 - 0.25 * t));
+		return Math.exp(l * x);
+	}
+	
+	/**
+	 * Maps a rank onto the key space with a fixed permutation.
+	 * @param rank The rank to map
+	 * @param n Size of the key space
+	 * @return The mapped key
+	 */
+	private static int scatter(int rank, int n) {
+		return (int) ((rank * 0x9E3779B1L) % n);
+	}
+}
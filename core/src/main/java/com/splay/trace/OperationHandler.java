@@ -0,0 +1,18 @@
+package com.splay.trace;
+
+import java.io.IOException;
+
+/**
+ * Interface for handling the operations read from an operation file.
+ * @author Benjamin Vial (29590765)
+ * @see TraceReader
+ */
+public interface OperationHandler {
+	/**
+	 * Handles a single operation.
+	 * @param op The operation code ({@code a}, {@code f} or {@code r})
+	 * @param n The operation value
+	 * @throws IOException If the operation cannot be handled
+	 */
+	public void handle(char op, int n) throws IOException;
+}
@@ -0,0 +1,92 @@
+package com.splay.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writer for the text operation format, one operation per line: the
+ * operation code followed by the value in decimal (e.g., {@code a280}).
+ * Values are formatted straight into the output buffer, without going
+ * through intermediate strings.
+ * @author Benjamin Vial (29590765)
+ * @see TraceReader
+ */
+public class TextTraceWriter implements OperationHandler, Closeable {
+	// Code, sign, ten digits and line break
+	private static final int MAX_RECORD_SIZE = 14;
+	private static final int BUFFER_SIZE = 1 << 16;
+	private final ByteBuffer bb = ByteBuffer.allocate(BUFFER_SIZE);
+	private final byte[] digits = new byte[10];
+	private final WritableByteChannel ch;
+	
+	/**
+	 * Constructor.
+	 * @param ch The channel to write operations to
+	 */
+	public TextTraceWriter(WritableByteChannel ch) {
+		this.ch = ch;
+	}
+	
+	/**
+	 * Constructor. Creates or truncates the specified file.
+	 * @param file The file to write operations to
+	 * @throws IOException If the file cannot be written to
+	 */
+	public TextTraceWriter(String file) throws IOException {
+		this(FileChannel.open(Paths.get(file), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+	}
+	
+	/**
+	 * Flushes any buffered operation, then closes the underlying channel.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		}
+		finally {
+			ch.close();
+		}
+	}
+	
+	/**
+	 * Writes any buffered operation to the underlying channel.
+	 * @throws IOException If the channel cannot be written to
+	 */
+	public void flush() throws IOException {
+		bb.flip();
+		while (bb.hasRemaining())
+			ch.write(bb);
+		bb.clear();
+	}
+	
+	/**
+	 * Buffers a single operation, flushing the buffer when full.
+	 */
+	@Override
+	public void handle(char op, int n) throws IOException {
+		if (bb.remaining() < MAX_RECORD_SIZE)
+			flush();
+		bb.put((byte) op);
+		// Work on the negative value, since -Integer.MIN_VALUE overflows
+		int v = n;
+		if (v < 0)
+			bb.put((byte) '-');
+		else
+			v = -v;
+		int i = digits.length;
+		do {
+			digits[--i] = (byte) ('0' - v % 10);
+			v /= 10;
+		} while (v != 0);
+		bb.put(digits, i, digits.length - i);
+		bb.put((byte) '\r');
+		bb.put((byte) '\n');
+	}
+}
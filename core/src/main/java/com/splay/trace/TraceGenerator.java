@@ -0,0 +1,61 @@
+package com.splay.trace;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic operation generator. Streams any number of add, find and remove
+ * operations to an {@code OperationHandler} (e.g., a writer for either
+ * operation format, or a {@code TraceReplayer}), drawing their values from a
+ * key distribution and their kinds from a weighted mix. The same seed and a
+ * fresh key distribution always yield the same operations.
+ * @author Benjamin Vial (29590765)
+ * @see KeyDistribution, TextTraceWriter, BinaryTraceWriter
+ */
+public class TraceGenerator {
+	private final int adds;
+	private final int finds;
+	private final KeyDistribution keys;
+	private final int removes;
+	private final long seed;
+	
+	/**
+	 * Constructor. Creates a generator mixing adds, finds and removes in the
+	 * specified proportions.
+	 * @param keys The distribution to draw values from
+	 * @param adds Relative weight of add operations
+	 * @param finds Relative weight of find operations
+	 * @param removes Relative weight of remove operations
+	 * @param seed Random seed
+	 * @throws IllegalArgumentException If a weight is negative, or if they
+	 * are all {@code 0}
+	 */
+	public TraceGenerator(KeyDistribution keys, int adds, int finds, int removes, long seed) {
+		if (adds < 0 || finds < 0 || removes < 0 || (long) adds + finds + removes == 0
+				|| (long) adds + finds + removes > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Invalid operation mix: " + adds + ":" + finds + ":" + removes);
+		this.keys = keys;
+		this.adds = adds;
+		this.finds = finds;
+		this.removes = removes;
+		this.seed = seed;
+	}
+	
+	/**
+	 * Generates the specified number of operations.
+	 * @param count Number of operations to generate
+	 * @param handler The handler to pass each operation to
+	 * @return Number of operations generated
+	 * @throws IOException If the handler fails
+	 */
+	public long generate(long count, OperationHandler handler) throws IOException {
+		SplittableRandom r = new SplittableRandom(seed);
+		int total = adds + finds + removes;
+		for (long i = 0; i < count; ++i) {
+			int w = r.nextInt(total);
+			char op = w < adds ? 'a' : w < adds + finds ? 'f' : 'r';
+			handler.handle(op, keys.next(r));
+		}
+		return count;
+	}
+}
@@ -0,0 +1,220 @@
+package com.splay.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader for operation files. Parses either the {@code a}/{@code f}/{@code r}
+ * text format or the compact binary format (detected from its header)
+ * straight from a buffered byte channel, without allocating a {@code String}
+ * per operation, and feeds each operation to a handler. Progress reporting is
+ * throttled, or turned off entirely.
+ * @author Benjamin Vial (29590765)
+ * @see BinaryTraceWriter, OperationHandler
+ */
+public class TraceReader {
+	private static final int BUFFER_SIZE = 1 << 16;
+	private final OperationHandler handler;
+	private final long interval;
+	
+	/**
+	 * Constructor. Creates a reader with progress reporting turned off.
+	 * @param handler The handler to feed operations to
+	 */
+	public TraceReader(OperationHandler handler) {
+		this(handler, 0);
+	}
+	
+	/**
+	 * Constructor. Creates a reader reporting its progress every time the
+	 * specified number of operations has been processed.
+	 * @param handler The handler to feed operations to
+	 * @param interval Number of operations between progress reports ({@code 0}
+	 * to turn progress reporting off)
+	 */
+	public TraceReader(OperationHandler handler, long interval) {
+		this.handler = handler;
+		this.interval = interval;
+	}
+	
+	/**
+	 * Reads every operation from the specified channel, detecting its format.
+	 * @param ch The channel to read operations from
+	 * @return Number of operations processed
+	 * @throws IOException If the channel cannot be read from
+	 * @throws NumberFormatException If the operations are malformed
+	 */
+	public long read(ReadableByteChannel ch) throws IOException {
+		ByteBuffer bb = ByteBuffer.allocate(BUFFER_SIZE);
+		// Fill enough of the buffer to look for a binary header
+		while (bb.position() < BinaryTraceWriter.MAGIC.length + 2 && ch.read(bb) != -1);
+		bb.flip();
+		if (isBinary(bb))
+			return readBinary(ch, bb);
+		return readText(ch, bb);
+	}
+	
+	/**
+	 * Reads every operation from the specified file, detecting its format.
+	 * @param file The file to read operations from
+	 * @return Number of operations processed
+	 * @throws IOException If the file cannot be read from
+	 * @throws NumberFormatException If the operations are malformed
+	 */
+	public long read(String file) throws IOException {
+		try (FileChannel fc = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+			return read(fc);
+		}
+	}
+	
+	/**
+	 * Checks whether the specified buffer starts with a binary header.
+	 * @param bb Buffer to check, ready to be read from
+	 * @return {@code true} if the header is found, {@code false} otherwise
+	 */
+	private static boolean isBinary(ByteBuffer bb) {
+		byte[] magic = BinaryTraceWriter.MAGIC;
+		if (bb.remaining() < magic.length + 2)
+			return false;
+		for (int i = 0; i < magic.length; ++i)
+			if (bb.get(i) != magic[i])
+				return false;
+		return true;
+	}
+	
+	/**
+	 * Reports progress if the specified count falls on the reporting interval.
+	 * @param count Number of operations processed so far
+	 */
+	private void progress(long count) {
+		if (interval <= 0 || count % interval != 0)
+			return;
+		String s = "" + count + "...";
+		System.out.print(s);
+		for (int i = 0; i < s.length(); ++i)
+			System.out.print('\b');
+	}
+	
+	/**
+	 * Reads binary operations, starting with the header held in the buffer.
+	 * @param ch The channel to read further operations from
+	 * @param bb Buffer holding the first bytes read, ready to be read from
+	 * @return Number of operations processed
+	 * @throws IOException If the channel cannot be read from
+	 */
+	private long readBinary(ReadableByteChannel ch, ByteBuffer bb) throws IOException {
+		bb.position(BinaryTraceWriter.MAGIC.length);
+		byte version = bb.get();
+		if (version != BinaryTraceWriter.VERSION)
+			throw new NumberFormatException("Unsupported binary format version " + version);
+		boolean delta = (bb.get() & BinaryTraceWriter.FLAG_DELTA) != 0;
+		long count = 0;
+		int previous = 0;
+		boolean eof = false;
+		while (true) {
+			// Make sure a whole record is buffered, unless the input is over
+			if (!eof && bb.remaining() < BinaryTraceWriter.MAX_RECORD_SIZE) {
+				bb.compact();
+				while (bb.position() < BinaryTraceWriter.MAX_RECORD_SIZE && !eof)
+					eof = ch.read(bb) == -1;
+				bb.flip();
+			}
+			if (!bb.hasRemaining())
+				return count;
+			char op = (char) bb.get();
+			int z = 0;
+			for (int shift = 0; ; shift += 7) {
+				if (!bb.hasRemaining() || shift > 28)
+					throw new NumberFormatException("Truncated value in operation " + (count + 1));
+				byte b = bb.get();
+				z |= (b & 0x7F) << shift;
+				if (b >= 0)
+					break;
+			}
+			int n = (z >>> 1) ^ -(z & 1);
+			if (delta) {
+				n += previous;
+				previous = n;
+			}
+			handler.handle(op, n);
+			progress(++count);
+		}
+	}
+	
+	/**
+	 * Reads text operations, starting with the bytes held in the buffer.
+	 * @param ch The channel to read further operations from
+	 * @param bb Buffer holding the first bytes read, ready to be read from
+	 * @return Number of operations processed
+	 * @throws IOException If the channel cannot be read from
+	 */
+	private long readText(ReadableByteChannel ch, ByteBuffer bb) throws IOException {
+		byte[] buf = bb.array();
+		long line = 0;
+		char op = 0;
+		long val = 0;
+		boolean negative = false, digits = false;
+		while (true) {
+			int n = bb.limit();
+			for (int i = bb.position(); i < n; ++i) {
+				byte b = buf[i];
+				if (b == '\n') {
+					if (op != 0) {
+						handler.handle(op, value(val, negative, digits, line + 1));
+						op = 0;
+						val = 0;
+						negative = digits = false;
+						progress(++line);
+					}
+				}
+				else if (b == '\r')
+					continue;
+				else if (op == 0)
+					op = (char) b;
+				else if (b >= '0' && b <= '9') {
+					val = val * 10 + (b - '0');
+					digits = true;
+					// Anything past ten digits cannot be a valid integer
+					if (val > 0xFFFFFFFFL)
+						throw new NumberFormatException("Value out of range on line " + (line + 1));
+				}
+				else if (b == '-' && !digits && !negative)
+					negative = true;
+				else
+					throw new NumberFormatException("Invalid value on line " + (line + 1));
+			}
+			bb.clear();
+			if (ch.read(bb) == -1)
+				break;
+			bb.flip();
+		}
+		// Last line may not be terminated
+		if (op != 0) {
+			handler.handle(op, value(val, negative, digits, line + 1));
+			progress(++line);
+		}
+		return line;
+	}
+	
+	/**
+	 * Validates and converts a parsed text value.
+	 * @param val The parsed magnitude
+	 * @param negative Whether the value had a minus sign
+	 * @param digits Whether any digit was parsed
+	 * @param line The line the value was parsed from
+	 * @return The integer value
+	 */
+	private static int value(long val, boolean negative, boolean digits, long line) {
+		if (!digits)
+			throw new NumberFormatException("Missing value on line " + line);
+		if (negative)
+			val = -val;
+		if (val < Integer.MIN_VALUE || val > Integer.MAX_VALUE)
+			throw new NumberFormatException("Value out of range on line " + line);
+		return (int) val;
+	}
+}
@@ -0,0 +1,80 @@
+package com.splay.trace;
+
+import com.tree.SearchTree;
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Batch replay engine for operation files. Reads operations in either the
+ * text or the binary format through a {@code TraceReader}, and applies each
+ * of them to a search tree.
+ * @author Benjamin Vial (29590765)
+ * @see SearchTree, TraceReader
+ */
+public class TraceReplayer implements OperationHandler {
+	private final TraceReader reader;
+	private final SearchTree st;
+	
+	/**
+	 * Constructor. Creates a replayer with progress reporting turned off.
+	 * @param st The search tree to apply operations to
+	 */
+	public TraceReplayer(SearchTree st) {
+		this(st, 0);
+	}
+	
+	/**
+	 * Constructor. Creates a replayer reporting its progress every time the
+	 * specified number of operations has been processed.
+	 * @param st The search tree to apply operations to
+	 * @param interval Number of operations between progress reports ({@code 0}
+	 * to turn progress reporting off)
+	 */
+	public TraceReplayer(SearchTree st, long interval) {
+		this.st = st;
+		reader = new TraceReader(this, interval);
+	}
+	
+	/**
+	 * Applies a single operation to the search tree.
+	 */
+	@Override
+	public void handle(char op, int n) {
+		switch (op) {
+		case 'a':
+			st.add(n);
+			break;
+		case 'f':
+			st.find(n);
+			break;
+		case 'r':
+			st.remove(n);
+			break;
+		default:
+			System.out.print("Unknown operation '" + op + "'; will ignore");
+			break;
+		}
+	}
+	
+	/**
+	 * Replays every operation read from the specified channel.
+	 * @param ch The channel to read operations from
+	 * @return Number of operations processed
+	 * @throws IOException If the channel cannot be read from
+	 * @throws NumberFormatException If the operations are malformed
+	 */
+	public long replay(ReadableByteChannel ch) throws IOException {
+		return reader.read(ch);
+	}
+	
+	/**
+	 * Replays every operation defined in the specified file.
+	 * @param file The file to read operations from
+	 * @return Number of operations processed
+	 * @throws IOException If the file cannot be read from
+	 * @throws NumberFormatException If the operations are malformed
+	 */
+	public long replay(String file) throws IOException {
+		return reader.read(file);
+	}
+}
@@ -0,0 +1,371 @@
+package com.splay.wal;
+
+import com.splay.SplayTree;
+import com.splay.opcount.OperationCounter;
+import com.splay.trace.TraceReplayer;
+import com.tree.SearchTree;
+import com.tree.Traversal;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Durable splay tree. Logs every addition and removal to an
+ * {@code OperationLog} before applying it, and checkpoints the whole tree
+ * with a snapshot every so often, so that recovery only has to restore the
+ * latest snapshot and replay the operations logged since. Searches are not
+ * logged: they change the shape of the tree, but not its contents.
+ * <p>
+ * The directory holds {@code snapshot.<g>} and {@code log.<g>} files, where
+ * the log of generation {@code g} holds the operations applied after the
+ * snapshot of the same generation (generation {@code 0} starting from an
+ * empty tree). Additions and removals are made durable in batches: every
+ * {@code batch} operations, or whenever {@code sync} is called.
+ * @author Benjamin Vial (29590765)
+ * @see OperationLog, SplayTree#snapshot(String)
+ */
+public class DurableSplayTree implements SearchTree, Closeable {
+	private static final String LOG = "log.";
+	private static final String SNAPSHOT = "snapshot.";
+	private final int batch;
+	private final Path dir;
+	private long generation;
+	private final long interval;
+	private OperationLog log;
+	private long logged;
+	private SplayTree st;
+	
+	/**
+	 * Constructor. Opens the tree held in the specified directory, making
+	 * additions and removals durable every 256 operations, and checkpointing
+	 * every 2^20 operations.
+	 * @param dir The directory holding the tree
+	 * @throws IOException If the directory cannot be read from or written to
+	 */
+	public DurableSplayTree(String dir) throws IOException {
+		this(dir, 256, 1 << 20);
+	}
+	
+	/**
+	 * Constructor. Opens the tree held in the specified directory, creating
+	 * it if needed, and recovers its latest durable state.
+	 * @param dir The directory holding the tree
+	 * @param batch Number of additions and removals that may be logged
+	 * before the log is synced
+	 * @param interval Number of additions and removals between checkpoints
+	 * ({@code 0} to checkpoint only on request)
+	 * @throws IOException If the directory cannot be read from or written to
+	 * @throws NumberFormatException If a snapshot or the log is invalid
+	 */
+	public DurableSplayTree(String dir, int batch, long interval) throws IOException {
+		this.dir = Paths.get(dir);
+		this.batch = batch;
+		this.interval = interval;
+		Files.createDirectories(this.dir);
+		generation = -1;
+		try (DirectoryStream<Path> ds = Files.newDirectoryStream(this.dir, SNAPSHOT + "*")) {
+			for (Path p : ds) {
+				String s = p.getFileName().toString().substring(SNAPSHOT.length());
+				// Leftover of an interrupted checkpoint
+				if (s.endsWith(".tmp"))
+					Files.delete(p);
+				else if (s.matches("\\d+"))
+					generation = Math.max(generation, Long.parseLong(s));
+			}
+		}
+		if (generation < 0) {
+			generation = 0;
+			st = new SplayTree();
+		}
+		else
+			st = SplayTree.restore(file(SNAPSHOT, generation).toString());
+		log = new OperationLog(file(LOG, generation).toString(), batch, new TraceReplayer(st));
+		logged = st.counter().adds() + st.counter().removes();
+		prune();
+	}
+	
+	/**
+	 * Logs, then adds the specified value.
+	 * @param n The value to add to the tree
+	 * @return The created Node
+	 * @throws UncheckedIOException If the operation cannot be logged
+	 */
+	@Override
+	public BinaryNode<Integer> add(int n) {
+		long seq;
+		BinaryNode<Integer> rt;
+		synchronized (this) {
+			seq = append('a', n);
+			rt = st.add(n);
+			checkpointIfDue();
+		}
+		syncIfDue(seq);
+		return rt;
+	}
+	
+	/**
+	 * Checkpoints the tree: syncs the log, writes a snapshot of the tree,
+	 * then starts a new, empty log and deletes the previous generation.
+	 * @throws IOException If the snapshot or the new log cannot be written
+	 */
+	public synchronized void checkpoint() throws IOException {
+		log.sync();
+		long next = generation + 1;
+		Path tmp = dir.resolve(SNAPSHOT + next + ".tmp");
+		try (FileChannel fc = FileChannel.open(tmp, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			st.snapshot(fc);
+			fc.force(true);
+		}
+		// The snapshot only counts once complete, under its final name
+		Files.move(tmp, file(SNAPSHOT, next), StandardCopyOption.ATOMIC_MOVE);
+		syncDirectory();
+		OperationLog previous = log;
+		log = new OperationLog(file(LOG, next).toString(), batch, null);
+		generation = next;
+		logged = 0;
+		previous.close();
+		prune();
+	}
+	
+	/**
+	 * Makes every logged operation durable, then closes the log.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		log.close();
+	}
+	
+	/**
+	 * @return The operation counter of the underlying tree
+	 */
+	@Override
+	public synchronized OperationCounter counter() {
+		return st.counter();
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public synchronized void dump(Appendable out, Traversal t) throws IOException {
+		st.dump(out, t);
+	}
+	
+	/**
+	 * {@code BinaryTree<T>} method override.
+	 */
+	@Override
+	public synchronized void dumpDot(Appendable out) throws IOException {
+		st.dumpDot(out);
+	}
+	
+	/**
+	 * Unboxing form of {@code find(int)}.
+	 * @param n The value to search for
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	@Override
+	public BinaryNode<Integer> find(Integer n) {
+		return find(n.intValue());
+	}
+	
+	/**
+	 * Finds the specified value, without logging anything.
+	 * @param n The value to search for
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	@Override
+	public synchronized BinaryNode<Integer> find(int n) {
+		return st.find(n);
+	}
+	
+	/**
+	 * @return Current generation of the snapshot and log files
+	 */
+	public synchronized long generation() {
+		return generation;
+	}
+	
+	/**
+	 * @return Height of the tree
+	 */
+	@Override
+	public synchronized int height() {
+		return st.height();
+	}
+	
+	/**
+	 * Checks whether the tree is empty (i.e., its root is null).
+	 * @return {@code true} if empty, {@code false} otherwise.
+	 */
+	@Override
+	public synchronized boolean isEmpty() {
+		return st.isEmpty();
+	}
+	
+	/**
+	 * Logs, then removes the specified value.
+	 * @param n The value to remove
+	 * @return The Node containing the value ({@code null} if not found)
+	 * @throws UncheckedIOException If the operation cannot be logged
+	 */
+	@Override
+	public BinaryNode<Integer> remove(int n) {
+		long seq;
+		BinaryNode<Integer> rt;
+		synchronized (this) {
+			seq = append('r', n);
+			rt = st.remove(n);
+			checkpointIfDue();
+		}
+		syncIfDue(seq);
+		return rt;
+	}
+	
+	/**
+	 * Searches for the specified value without splaying, nor logging
+	 * anything.
+	 * @param n The value to search for
+	 * @return Output of the underlying tree's {@code search(int)} method
+	 */
+	public synchronized int search(int n) {
+		return st.search(n);
+	}
+	
+	/**
+	 * @return Number of values in the tree
+	 */
+	@Override
+	public synchronized int size() {
+		return st.size();
+	}
+	
+	/**
+	 * @return Output of the underlying tree's {@code stats()} method
+	 */
+	@Override
+	public synchronized String stats() {
+		return st.stats();
+	}
+	
+	/**
+	 * Makes every logged operation durable.
+	 * @throws IOException If the log cannot be written to
+	 */
+	public void sync() throws IOException {
+		OperationLog ol;
+		synchronized (this) {
+			ol = log;
+		}
+		ol.sync();
+	}
+	
+	/**
+	 * Used to display the tree's contents.
+	 */
+	@Override
+	public synchronized String toString() {
+		return st.toString();
+	}
+	
+	/**
+	 * Appends an operation to the log.
+	 * @param op The operation code
+	 * @param n The operation value
+	 * @return Sequence number of the operation
+	 * @throws UncheckedIOException If the operation cannot be logged
+	 */
+	private long append(char op, int n) {
+		++logged;
+		try {
+			return log.append(op, n);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * Checkpoints the tree if enough operations were logged since the last
+	 * checkpoint.
+	 * @throws UncheckedIOException If the checkpoint fails
+	 */
+	private void checkpointIfDue() {
+		if (interval <= 0 || logged < interval)
+			return;
+		try {
+			checkpoint();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * @param prefix The file name prefix
+	 * @param g The generation
+	 * @return The file of the specified generation
+	 */
+	private Path file(String prefix, long g) {
+		return dir.resolve(prefix + g);
+	}
+	
+	/**
+	 * Deletes the snapshot and log files of every previous generation.
+	 * @throws IOException If a file cannot be deleted
+	 */
+	private void prune() throws IOException {
+		try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir)) {
+			for (Path p : ds) {
+				String s = p.getFileName().toString();
+				String g = s.startsWith(SNAPSHOT) ? s.substring(SNAPSHOT.length())
+						: s.startsWith(LOG) ? s.substring(LOG.length()) : null;
+				if (g != null && g.matches("\\d+") && Long.parseLong(g) < generation)
+					Files.delete(p);
+			}
+		}
+	}
+	
+	/**
+	 * Forces the directory entries to disk, so that a renamed snapshot
+	 * survives a crash. Not every platform supports it, in which case the
+	 * rename is left to the file system.
+	 */
+	private void syncDirectory() {
+		try (FileChannel fc = FileChannel.open(dir, StandardOpenOption.READ)) {
+			fc.force(true);
+		}
+		catch (IOException e) {
+			// Directories cannot be opened on some platforms
+		}
+	}
+	
+	/**
+	 * Syncs the log if enough operations are waiting to be made durable.
+	 * Runs outside of the tree lock, so that concurrent callers share a
+	 * single {@code fsync}.
+	 * @param seq Sequence number of the operation to make durable
+	 * @throws UncheckedIOException If the log cannot be written to
+	 */
+	private void syncIfDue(long seq) {
+		OperationLog ol;
+		synchronized (this) {
+			ol = log;
+		}
+		try {
+			if (ol.due())
+				ol.sync(seq);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,294 @@
+package com.splay.wal;
+
+import com.splay.trace.BinaryTraceWriter;
+import com.splay.trace.OperationHandler;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only, durable operation log. Operations are written in the binary
+ * operation format (without delta encoding), so the log can also be read by
+ * a {@code TraceReader}. Appending only buffers an operation; making it
+ * durable takes a call to {@code sync}, which writes and forces every
+ * buffered operation to disk at once. Concurrent callers of {@code sync}
+ * share a single {@code fsync} (group commit): while one thread forces the
+ * log, the others keep appending to a second buffer, and wait for the next
+ * {@code fsync} only if theirs was not covered by the current one.
+ * @author Benjamin Vial (29590765)
+ * @see BinaryTraceWriter, DurableSplayTree
+ */
+public class OperationLog implements OperationHandler, Closeable {
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int HEADER_SIZE = BinaryTraceWriter.MAGIC.length + 2;
+	private long appended;
+	private final int batch;
+	private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	private final FileChannel ch;
+	private long durable;
+	private IOException failure;
+	private ByteBuffer spare = ByteBuffer.allocate(BUFFER_SIZE);
+	private boolean syncing;
+	
+	/**
+	 * Constructor. Opens the specified log, creating it if needed. Existing
+	 * operations are passed to the given handler, in order; an incomplete or
+	 * unknown operation at the end of the log (e.g., after a crash in the
+	 * middle of a write) is discarded, along with everything after it.
+	 * @param file The log file
+	 * @param batch Number of operations that may be appended before
+	 * {@code handle} syncs the log
+	 * @param recovery The handler to pass existing operations to
+	 * ({@code null} to skip them)
+	 * @throws IOException If the log cannot be read from or written to
+	 * @throws NumberFormatException If the file is not an operation log
+	 */
+	public OperationLog(String file, int batch, OperationHandler recovery) throws IOException {
+		if (batch <= 0)
+			throw new IllegalArgumentException("Invalid batch size: " + batch);
+		this.batch = batch;
+		ch = FileChannel.open(Paths.get(file), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			if (ch.size() == 0) {
+				ByteBuffer bb = ByteBuffer.allocate(HEADER_SIZE);
+				bb.put(BinaryTraceWriter.MAGIC);
+				bb.put(BinaryTraceWriter.VERSION);
+				bb.put((byte) 0);
+				bb.flip();
+				while (bb.hasRemaining())
+					ch.write(bb, bb.position());
+				ch.force(true);
+				ch.position(HEADER_SIZE);
+			}
+			else
+				recover(recovery);
+		}
+		catch (IOException | RuntimeException e) {
+			ch.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Buffers a single operation, without making it durable.
+	 * @param op The operation code
+	 * @param n The operation value
+	 * @return Sequence number of the operation, to be passed to {@code sync}
+	 * @throws IOException If a previous {@code sync} failed
+	 */
+	public synchronized long append(char op, int n) throws IOException {
+		if (failure != null)
+			throw failure;
+		// The buffer fills up only if a sync is already under way
+		while (buffer.remaining() < BinaryTraceWriter.MAX_RECORD_SIZE) {
+			if (!syncing) {
+				write(buffer);
+				buffer.clear();
+				break;
+			}
+			await();
+		}
+		buffer.put((byte) op);
+		// Zigzag encoding keeps small negative values short
+		int z = (n << 1) ^ (n >> 31);
+		while ((z & ~0x7F) != 0) {
+			buffer.put((byte) ((z & 0x7F) | 0x80));
+			z >>>= 7;
+		}
+		buffer.put((byte) z);
+		return ++appended;
+	}
+	
+	/**
+	 * Makes every appended operation durable, then closes the log.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			sync();
+		}
+		finally {
+			ch.close();
+		}
+	}
+	
+	/**
+	 * Checks whether enough operations have been appended since the last
+	 * {@code sync} to warrant another one.
+	 * @return {@code true} if at least {@code batch} operations are not yet
+	 * durable, {@code false} otherwise
+	 */
+	public synchronized boolean due() {
+		return appended - durable >= batch;
+	}
+	
+	/**
+	 * Appends a single operation, then syncs the log if enough operations
+	 * are waiting to be made durable.
+	 */
+	@Override
+	public void handle(char op, int n) throws IOException {
+		long seq = append(op, n);
+		if (due())
+			sync(seq);
+	}
+	
+	/**
+	 * Makes every operation appended so far durable.
+	 * @throws IOException If the log cannot be written to
+	 */
+	public void sync() throws IOException {
+		long seq;
+		synchronized (this) {
+			seq = appended;
+		}
+		sync(seq);
+	}
+	
+	/**
+	 * Makes every operation up to the specified one durable. Returns at once
+	 * if it already is; otherwise, either forces the log or waits for the
+	 * thread forcing it.
+	 * @param seq Sequence number of the operation, as returned by
+	 * {@code append}
+	 * @throws IOException If the log cannot be written to
+	 */
+	public void sync(long seq) throws IOException {
+		ByteBuffer bb;
+		long target;
+		synchronized (this) {
+			while (true) {
+				if (failure != null)
+					throw failure;
+				if (durable >= seq)
+					return;
+				if (!syncing)
+					break;
+				await();
+			}
+			// Take over the buffered operations, and let others append meanwhile
+			syncing = true;
+			bb = buffer;
+			buffer = spare;
+			spare = bb;
+			target = appended;
+		}
+		try {
+			write(bb);
+			ch.force(false);
+		}
+		catch (IOException e) {
+			synchronized (this) {
+				failure = e;
+				syncing = false;
+				notifyAll();
+			}
+			throw e;
+		}
+		bb.clear();
+		synchronized (this) {
+			durable = target;
+			syncing = false;
+			notifyAll();
+		}
+	}
+	
+	/**
+	 * Waits for the thread forcing the log.
+	 * @throws InterruptedIOException If the thread is interrupted
+	 */
+	private void await() throws InterruptedIOException {
+		try {
+			wait();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the operation log");
+		}
+	}
+	
+	/**
+	 * Reads the existing operations, passing them to the specified handler,
+	 * then truncates the log after the last valid one. Reading stops at the
+	 * first incomplete operation or unknown operation code, such as the
+	 * zero-filled tail some file systems leave after a crash.
+	 * @param recovery The handler to pass operations to ({@code null} to skip
+	 * them)
+	 * @throws IOException If the log cannot be read from
+	 * @throws NumberFormatException If the file is not an operation log
+	 */
+	private void recover(OperationHandler recovery) throws IOException {
+		ByteBuffer bb = ByteBuffer.allocate(BUFFER_SIZE);
+		long pos = 0;
+		boolean eof = false;
+		while (bb.position() < HEADER_SIZE && !eof)
+			eof = ch.read(bb, bb.position()) == -1;
+		bb.flip();
+		if (bb.remaining() < HEADER_SIZE)
+			throw new NumberFormatException("Not an operation log");
+		for (int i = 0; i < BinaryTraceWriter.MAGIC.length; ++i)
+			if (bb.get() != BinaryTraceWriter.MAGIC[i])
+				throw new NumberFormatException("Not an operation log");
+		if (bb.get() != BinaryTraceWriter.VERSION || bb.get() != 0)
+			throw new NumberFormatException("Unsupported operation log format");
+		long valid = HEADER_SIZE;
+		pos = bb.limit();
+		eof = false;
+		while (true) {
+			if (!eof && bb.remaining() < BinaryTraceWriter.MAX_RECORD_SIZE) {
+				bb.compact();
+				while (bb.position() < BinaryTraceWriter.MAX_RECORD_SIZE && !eof) {
+					int r = ch.read(bb, pos);
+					eof = r == -1;
+					if (r > 0)
+						pos += r;
+				}
+				bb.flip();
+			}
+			if (!bb.hasRemaining())
+				break;
+			int start = bb.position();
+			char op = (char) bb.get();
+			if (op != 'a' && op != 'r')
+				break;
+			int z = 0;
+			boolean complete = false;
+			for (int shift = 0; bb.hasRemaining() && shift <= 28; shift += 7) {
+				byte b = bb.get();
+				z |= (b & 0x7F) << shift;
+				if (b >= 0) {
+					complete = true;
+					break;
+				}
+			}
+			if (!complete)
+				break;
+			valid += bb.position() - start;
+			++appended;
+			if (recovery != null)
+				recovery.handle(op, (z >>> 1) ^ -(z & 1));
+		}
+		durable = appended;
+		if (ch.size() > valid) {
+			ch.truncate(valid);
+			ch.force(false);
+		}
+		ch.position(valid);
+	}
+	
+	/**
+	 * Writes the specified buffer to the end of the log.
+	 * @param bb The buffer to write, ready to be written to
+	 * @throws IOException If the log cannot be written to
+	 */
+	private void write(ByteBuffer bb) throws IOException {
+		bb.flip();
+		while (bb.hasRemaining())
+			ch.write(bb);
+	}
+}
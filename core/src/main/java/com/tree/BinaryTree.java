@@ -0,0 +1,70 @@
+package com.tree;
+
+import java.io.IOException;
+
+/**
+ * Abstract, flexible binary tree ADT for solving both the Huffman coding tree
+ * and the tree selection problems.
+ * @author Benjamin Vial (29590765)
+ * @param <T> Node contents
+ */
+public interface BinaryTree<T> {	
+	/**
+	 * Binary tree Node interface.
+	 * @param <T> Node contents
+	 */
+	public interface BinaryNode<T> { }
+	
+	/**
+	 * Binary tree Node holding a primitive integer value, so that the value
+	 * can be read without boxing.
+	 */
+	public interface IntNode extends BinaryNode<Integer> {
+		/**
+		 * @return Node value
+		 */
+		public int val();
+	}
+	
+	/**
+	 * Binary tree Node holding a primitive long value, so that the value can
+	 * be read without boxing.
+	 */
+	public interface LongNode extends BinaryNode<Long> {
+		/**
+		 * @return Node value
+		 */
+		public long val();
+	}
+	
+	/**
+	 * Writes the tree's Nodes as text, visiting them in the specified order.
+	 * @param out Where to write the Nodes to
+	 * @param t The traversal order
+	 * @throws IOException If the output cannot be written to
+	 * @see TreeDumper
+	 */
+	public void dump(Appendable out, Traversal t) throws IOException;
+	
+	/**
+	 * Writes the tree as a Graphviz DOT graph.
+	 * @param out Where to write the graph to
+	 * @throws IOException If the output cannot be written to
+	 * @see TreeDumper
+	 */
+	public void dumpDot(Appendable out) throws IOException;
+	
+	/**
+	 * Searches through the tree for a specified value, returning the Node
+	 * containing the value.
+	 * @param v The value to search for
+	 * @return The Node containing the value
+	 */
+	public BinaryNode<T> find(T v);
+	
+	/**
+	 * Checks whether the tree is empty (i.e., its root is null).
+	 * @return {@code true} if the tree is empty, {@code false} otherwise
+	 */
+	public boolean isEmpty();
+}
@@ -0,0 +1,52 @@
+package com.tree;
+
+import com.splay.opcount.OperationCounter;
+
+/**
+ * Binary search tree ADT over primitive long values, the counterpart of
+ * {@code SearchTree} for trees whose values must never be boxed.
+ * @author Benjamin Vial (29590765)
+ * @see SearchTree
+ */
+public interface LongSearchTree extends BinaryTree<Long> {
+	/**
+	 * Adds the specified value to the tree.
+	 * @param n The value to add
+	 * @return The Node containing the value
+	 */
+	public BinaryNode<Long> add(long n);
+	
+	/**
+	 * @return The operation counter recording the tree's operations
+	 */
+	public OperationCounter counter();
+	
+	/**
+	 * Searches through the tree for the specified value, without boxing it.
+	 * @param n The value to search for
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	public BinaryNode<Long> find(long n);
+	
+	/**
+	 * @return Number of levels in the tree ({@code 0} if empty)
+	 */
+	public int height();
+	
+	/**
+	 * Removes the specified value from the tree.
+	 * @param n The value to remove
+	 * @return The Node containing the value ({@code null} if not found)
+	 */
+	public BinaryNode<Long> remove(long n);
+	
+	/**
+	 * @return Number of values in the tree
+	 */
+	public int size();
+	
+	/**
+	 * @return Operation counts for display purposes
+	 */
+	public String stats();
+}
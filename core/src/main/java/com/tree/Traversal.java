@@ -0,0 +1,22 @@
+package com.tree;
+
+/**
+ * Order in which a binary tree's Nodes are visited when dumping the tree.
+ * @author Benjamin Vial (29590765)
+ * @see TreeDumper
+ */
+public enum Traversal {
+	/**
+	 * Left subtree, then the Node, then the right subtree.
+	 */
+	INORDER,
+	/**
+	 * One level at a time, from the root down, one line per level.
+	 */
+	LEVEL_ORDER,
+	/**
+	 * The Node, then its left and right subtrees, each prefixed with
+	 * {@code L} or {@code R}.
+	 */
+	PREORDER
+}
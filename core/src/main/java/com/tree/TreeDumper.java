@@ -0,0 +1,241 @@
+package com.tree;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+
+/**
+ * Streaming binary tree dump. Writes the Nodes of a tree to an
+ * {@code Appendable} as they are visited, either as text following a
+ * traversal order, or as a Graphviz DOT graph. Traversals are iterative, so
+ * that degenerate trees cannot overflow the call stack, and hold at most one
+ * level (level-order) or one path and its pending siblings (otherwise) in
+ * memory.
+ * @author Benjamin Vial (29590765)
+ * @param <N> Node type
+ */
+public abstract class TreeDumper<N> {
+	/**
+	 * Pending DOT Node, along with its parent's identifier and the side it
+	 * hangs from.
+	 * @param <N> Node type
+	 */
+	private static class Pending<N> {
+		private final N node;
+		private final long parent;
+		private final char side;
+		
+		/**
+		 * Constructor.
+		 * @param n The Node
+		 * @param p Identifier of the parent ({@code -1} for the root)
+		 * @param s Side the Node hangs from ({@code L} or {@code R})
+		 */
+		private Pending(N n, long p, char s) {
+			node = n;
+			parent = p;
+			side = s;
+		}
+	}
+	
+	/**
+	 * Writes the specified subtree as text, visiting its Nodes in the given
+	 * order. Each Node is written as its label in parentheses, followed by a
+	 * space.
+	 * @param root Root of the subtree ({@code null} for an empty tree)
+	 * @param t The traversal order
+	 * @param out Where to write the Nodes to
+	 * @throws IOException If the output cannot be written to
+	 */
+	public void dump(N root, Traversal t, Appendable out) throws IOException {
+		if (root == null)
+			return;
+		switch (t) {
+		case INORDER:
+			inorder(root, out);
+			break;
+		case LEVEL_ORDER:
+			levelOrder(root, out);
+			break;
+		default:
+			preorder(root, out);
+			break;
+		}
+	}
+	
+	/**
+	 * Writes the specified subtree as a Graphviz DOT graph, in which Nodes are
+	 * numbered in preorder and edges are labelled {@code L} or {@code R}.
+	 * @param root Root of the subtree ({@code null} for an empty tree)
+	 * @param out Where to write the graph to
+	 * @throws IOException If the output cannot be written to
+	 */
+	public void dumpDot(N root, Appendable out) throws IOException {
+		out.append("digraph tree {\n");
+		ArrayDeque<Pending<N>> stack = new ArrayDeque<>();
+		if (root != null)
+			stack.push(new Pending<>(root, -1, ' '));
+		StringBuilder sb = new StringBuilder();
+		long id = 0;
+		while (!stack.isEmpty()) {
+			Pending<N> p = stack.pop();
+			sb.setLength(0);
+			label(p.node, sb);
+			out.append("\tn").append(Long.toString(id)).append(" [label=\"");
+			escape(sb, out);
+			out.append("\"];\n");
+			if (p.parent >= 0)
+				out.append("\tn").append(Long.toString(p.parent)).append(" -> n").append(Long.toString(id))
+						.append(" [label=\"").append(p.side).append("\"];\n");
+			if (right(p.node) != null)
+				stack.push(new Pending<>(right(p.node), id, 'R'));
+			if (left(p.node) != null)
+				stack.push(new Pending<>(left(p.node), id, 'L'));
+			++id;
+		}
+		out.append("}\n");
+	}
+	
+	/**
+	 * Used to display the specified subtree in preorder, as a string.
+	 * @param root Root of the subtree
+	 * @return The preorder dump of the subtree
+	 */
+	public String toString(N root) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			dump(root, Traversal.PREORDER, sb);
+		}
+		catch (IOException e) {
+			// StringBuilder does not throw
+			throw new UncheckedIOException(e);
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Writes the label of the specified Node, without any decoration.
+	 * @param n The Node
+	 * @param out Where to write the label to
+	 * @throws IOException If the output cannot be written to
+	 */
+	protected abstract void label(N n, Appendable out) throws IOException;
+	
+	/**
+	 * @param n The Node
+	 * @return Left child of the Node ({@code null} if none)
+	 */
+	protected abstract N left(N n);
+	
+	/**
+	 * @param n The Node
+	 * @return Right child of the Node ({@code null} if none)
+	 */
+	protected abstract N right(N n);
+	
+	/**
+	 * Writes a DOT string, escaping quotes, backslashes and control
+	 * characters.
+	 * @param s The string to escape
+	 * @param out Where to write the escaped string to
+	 * @throws IOException If the output cannot be written to
+	 */
+	private static void escape(CharSequence s, Appendable out) throws IOException {
+		for (int i = 0; i < s.length(); ++i) {
+			char c = s.charAt(i);
+			if (c == '"' || c == '\\')
+				out.append('\\').append(c);
+			else if (c == '\n')
+				out.append("\\\\n");
+			else if (c < ' ')
+				out.append("\\\\x").append(Integer.toHexString(c));
+			else
+				out.append(c);
+		}
+	}
+	
+	/**
+	 * Writes the specified subtree in order.
+	 * @param root Root of the subtree
+	 * @param out Where to write the Nodes to
+	 * @throws IOException If the output cannot be written to
+	 */
+	private void inorder(N root, Appendable out) throws IOException {
+		ArrayDeque<N> stack = new ArrayDeque<>();
+		N n = root;
+		while (n != null || !stack.isEmpty()) {
+			while (n != null) {
+				stack.push(n);
+				n = left(n);
+			}
+			n = stack.pop();
+			node(n, out);
+			n = right(n);
+		}
+	}
+	
+	/**
+	 * Writes the specified subtree one level at a time, one line per level.
+	 * @param root Root of the subtree
+	 * @param out Where to write the Nodes to
+	 * @throws IOException If the output cannot be written to
+	 */
+	private void levelOrder(N root, Appendable out) throws IOException {
+		ArrayDeque<N> queue = new ArrayDeque<>();
+		queue.add(root);
+		while (!queue.isEmpty()) {
+			for (int i = queue.size(); i > 0; --i) {
+				N n = queue.poll();
+				node(n, out);
+				if (left(n) != null)
+					queue.add(left(n));
+				if (right(n) != null)
+					queue.add(right(n));
+			}
+			out.append('\n');
+		}
+	}
+	
+	/**
+	 * Writes a single Node's label in parentheses, followed by a space.
+	 * @param n The Node
+	 * @param out Where to write the Node to
+	 * @throws IOException If the output cannot be written to
+	 */
+	private void node(N n, Appendable out) throws IOException {
+		out.append('(');
+		label(n, out);
+		out.append(") ");
+	}
+	
+	/**
+	 * Writes the specified subtree in preorder, prefixing each child with the
+	 * side it hangs from.
+	 * @param root Root of the subtree
+	 * @param out Where to write the Nodes to
+	 * @throws IOException If the output cannot be written to
+	 */
+	private void preorder(N root, Appendable out) throws IOException {
+		ArrayDeque<N> stack = new ArrayDeque<>();
+		// Side each pending Node hangs from, kept alongside the Node stack
+		StringBuilder sides = new StringBuilder();
+		stack.push(root);
+		sides.append(' ');
+		while (!stack.isEmpty()) {
+			N n = stack.pop();
+			char side = sides.charAt(sides.length() - 1);
+			sides.setLength(sides.length() - 1);
+			if (side != ' ')
+				out.append(side);
+			node(n, out);
+			if (right(n) != null) {
+				stack.push(right(n));
+				sides.append('R');
+			}
+			if (left(n) != null) {
+				stack.push(left(n));
+				sides.append('L');
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.avl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * AVL tree tests, checked against a reference multiset (the tree keeps
+ * duplicate values).
+ * @author Benjamin Vial (29590765)
+ */
+class AVLTreeTest {
+	@Test
+	void randomOperationsMatchReferenceAndStayBalanced() {
+		AVLTree at = new AVLTree();
+		TreeMap<Integer, Integer> tm = new TreeMap<>();
+		int n = 0;
+		Random r = new Random(352);
+		for (int i = 0; i < 20_000; i++) {
+			int v = r.nextInt(2_000);
+			if (r.nextBoolean()) {
+				at.add(v);
+				tm.merge(v, 1, Integer::sum);
+				++n;
+			}
+			else {
+				if (tm.computeIfPresent(v, (k, c) -> c - 1) != null)
+					--n;
+				tm.remove(v, 0);
+				at.remove(v);
+			}
+		}
+		assertEquals(n, at.size());
+		for (int v = 0; v < 2_000; v++)
+			assertEquals(tm.containsKey(v), at.find(v) != null);
+		// An AVL tree of n nodes is at most about 1.44 log2(n) high
+		assertTrue(at.height() <= 1.45 * (Math.log(n + 2) / Math.log(2)));
+	}
+	
+	@Test
+	void sequentialAddsStayLogarithmic() {
+		AVLTree at = new AVLTree();
+		for (int i = 0; i < 1 << 16; i++)
+			at.add(i);
+		assertTrue(at.height() <= 17);
+		for (int i = 0; i < 1 << 16; i++)
+			at.remove(i);
+		assertTrue(at.isEmpty());
+		assertNull(at.find(0));
+	}
+}
@@ -0,0 +1,116 @@
+package com.huffman;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Huffman buffer encoding and decoding tests.
+ * @author Benjamin Vial (29590765)
+ */
+class HuffmanBufferTest {
+	private static final String TEXT = "twas brillig and the slithy toves did gyre and gimble in the wabe";
+	
+	@Test
+	void allocatesNothingOnceWarm() {
+		HuffmanTree ht = tree(TEXT);
+		char[] src = TEXT.toCharArray();
+		char[] out = new char[src.length];
+		ByteBuffer code = ByteBuffer.allocate(src.length);
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long id = Thread.currentThread().getId();
+		long before = 0;
+		for (int i = 0; i < 200_000; ++i) {
+			if (i == 100_000)
+				before = mx.getThreadAllocatedBytes(id);
+			code.clear();
+			long bits = ht.encode(src, 0, src.length, code);
+			code.flip();
+			ht.decode(code, bits, out, 0, out.length);
+		}
+		long allocated = mx.getThreadAllocatedBytes(id) - before;
+		assertTrue(allocated < 64 * 1024, "allocated " + allocated + " bytes");
+		assertEquals(TEXT, new String(out));
+	}
+	
+	@Test
+	void matchesStringForm() {
+		HuffmanTree ht = tree(TEXT);
+		String bits = ht.encode("Twas Brillig");
+		ByteBuffer code = ByteBuffer.allocate(16);
+		assertEquals(bits.length(), ht.encode("Twas Brillig", 0, 12, code));
+		assertEquals((bits.length() + 7) / 8, code.position());
+		for (int i = 0; i < bits.length(); ++i)
+			assertEquals(bits.charAt(i) - '0', code.get(i / 8) >>> (7 - i % 8) & 1);
+		code.flip();
+		ByteBuffer text = ByteBuffer.allocate(12);
+		assertEquals(12, ht.decode(code, bits.length(), text));
+		assertEquals("twas brillig", new String(text.array(), StandardCharsets.ISO_8859_1));
+		assertEquals(0, code.remaining());
+		// Byte sources are encoded the same way
+		ByteBuffer again = ByteBuffer.allocate(16);
+		ByteBuffer src = ByteBuffer.wrap("twas brillig".getBytes(StandardCharsets.ISO_8859_1));
+		assertEquals(bits.length(), ht.encode(src, 0, 12, again));
+		assertEquals(0, src.position());
+		assertEquals(code.flip(), again.flip());
+	}
+	
+	@Test
+	void overflowLeavesPositions() {
+		HuffmanTree ht = tree(TEXT);
+		ByteBuffer small = ByteBuffer.allocate(2);
+		small.put((byte) 1);
+		assertThrows(BufferOverflowException.class, () -> ht.encode(TEXT, 0, TEXT.length(), small));
+		assertEquals(1, small.position());
+		assertThrows(NoSuchElementException.class, () -> ht.encode("xyz", 0, 3, ByteBuffer.allocate(8)));
+		ByteBuffer code = ByteBuffer.allocate(64);
+		long bits = ht.encode(TEXT, 0, TEXT.length(), code);
+		code.flip();
+		assertThrows(BufferOverflowException.class, () -> ht.decode(code, bits, new char[8], 0, 8));
+		assertEquals(0, code.position());
+		assertThrows(IndexOutOfBoundsException.class, () -> ht.encode(TEXT, 5, TEXT.length(), code));
+	}
+	
+	@Test
+	void tooDeepTreePublishesNoTable() {
+		// Each merge puts the previous tree one level deeper, past the
+		// longest code a table entry can hold
+		HuffmanTree ht = new HuffmanTree('\u3040', 1);
+		for (int i = 1; i <= 60; ++i)
+			ht = new HuffmanTree(new HuffmanTree((char) ('\u3040' + i), 1), ht);
+		HuffmanTree deep = ht;
+		char[] src = { '\u3041' };
+		for (int i = 0; i < 2; ++i)
+			assertThrows(IllegalStateException.class, () -> deep.encode(src, 0, 1, ByteBuffer.allocate(8)));
+		assertThrows(IllegalStateException.class, () -> deep.decode(ByteBuffer.allocate(1), 1, new char[1], 0, 1));
+	}
+	
+	/**
+	 * Builds a tree from the character frequencies of the specified text.
+	 * @param s The text to count characters in
+	 * @return The resulting tree
+	 */
+	private static HuffmanTree tree(String s) {
+		int[] freq = new int[128];
+		for (char c : s.toCharArray())
+			++freq[c];
+		StringBuilder chars = new StringBuilder();
+		int[] weights = new int[128];
+		int n = 0;
+		for (int c = 0; c < freq.length; ++c)
+			if (freq[c] > 0) {
+				chars.append((char) c);
+				weights[n++] = freq[c];
+			}
+		return HuffmanTree.build(chars.toString().toCharArray(), Arrays.copyOf(weights, n));
+	}
+}
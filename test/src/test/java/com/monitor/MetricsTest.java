@@ -0,0 +1,85 @@
+package com.monitor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.huffman.HuffmanTree;
+import com.splay.SplayTree;
+import com.splay.concurrent.ShardedSplayTree;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * JMX tree and codec metrics tests.
+ * @author Benjamin Vial (29590765)
+ */
+class MetricsTest {
+	private static final MBeanServer SERVER = ManagementFactory.getPlatformMBeanServer();
+	
+	@Test
+	void codecMetricsCountSymbolsAndBytes() throws JMException {
+		HuffmanTree ht = HuffmanTree.build(new char[] { 'a', 'b', 'c' }, new int[] { 2, 1, 1 });
+		CodecMetrics cm = new CodecMetrics();
+		ht.setMetrics(cm);
+		ByteBuffer code = ByteBuffer.allocate(8);
+		// Codes of 1, 2 and 2 bits
+		long bits = ht.encode("abca", 0, 4, code);
+		assertEquals(6, bits);
+		code.flip();
+		ht.decode(code, bits, new char[4], 0, 4);
+		ObjectName on = CodecMetrics.register("codec", cm);
+		try {
+			assertEquals(4L, SERVER.getAttribute(on, "EncodedSymbols"));
+			assertEquals(1L, SERVER.getAttribute(on, "EncodedBytes"));
+			assertEquals(4L, SERVER.getAttribute(on, "DecodedSymbols"));
+			assertEquals(1L, SERVER.getAttribute(on, "DecodedBytes"));
+			// 6 bits of code for 4 symbols
+			double encode = (Double) SERVER.getAttribute(on, "EncodeSymbolRate");
+			assertEquals(encode * 6 / 8 / 4, (Double) SERVER.getAttribute(on, "EncodeByteRate"), encode * 1e-9);
+			double decode = (Double) SERVER.getAttribute(on, "DecodeSymbolRate");
+			assertEquals(decode * 6 / 8 / 4, (Double) SERVER.getAttribute(on, "DecodeByteRate"), decode * 1e-9);
+		}
+		finally {
+			SERVER.unregisterMBean(on);
+		}
+	}
+	
+	@Test
+	void treeMetricsReadTheTree() throws JMException {
+		SplayTree st = new SplayTree();
+		Object lock = new Object();
+		synchronized (lock) {
+			for (int i = 1; i <= 7; i++)
+				st.add(i);
+			st.find(1);
+			st.remove(7);
+		}
+		ObjectName on = TreeMetrics.register("splay", st, lock);
+		try {
+			assertEquals(7L, SERVER.getAttribute(on, "Adds"));
+			assertEquals(1L, SERVER.getAttribute(on, "Finds"));
+			assertEquals(1L, SERVER.getAttribute(on, "Removes"));
+			assertEquals(6, SERVER.getAttribute(on, "Size"));
+			assertEquals(st.height(), SERVER.getAttribute(on, "Height"));
+		}
+		finally {
+			SERVER.unregisterMBean(on);
+		}
+		ShardedSplayTree sst = new ShardedSplayTree(4);
+		for (int i = 0; i < 100; i++)
+			sst.add(i);
+		on = TreeMetrics.register("sharded", sst);
+		try {
+			assertEquals(100L, SERVER.getAttribute(on, "Adds"));
+			assertEquals(100, SERVER.getAttribute(on, "Size"));
+			assertEquals(sst.height(), SERVER.getAttribute(on, "Height"));
+		}
+		finally {
+			SERVER.unregisterMBean(on);
+		}
+	}
+}
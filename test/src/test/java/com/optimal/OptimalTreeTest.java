@@ -0,0 +1,94 @@
+package com.optimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Optimal tree tests.
+ * @author Benjamin Vial (29590765)
+ */
+class OptimalTreeTest {
+	@Test
+	void buildsFromTraceFinds() {
+		OptimalTree.Builder b = new OptimalTree.Builder();
+		for (int i = 0; i < 100; ++i)
+			b.handle('f', 7);
+		for (int k = 0; k < 10; ++k) {
+			b.handle('f', k);
+			b.handle('a', 100 + k);
+		}
+		OptimalTree ot = b.build();
+		assertEquals(10, ot.size());
+		assertEquals(7, ot.find(7).val());
+		assertEquals(1, ot.counter().compares());
+		assertNull(ot.find(100));
+		for (int k = 0; k < 10; ++k)
+			assertNotNull(ot.find(k));
+		assertThrows(IllegalArgumentException.class, () -> OptimalTree.build(new int[] { 2, 1 }, new long[2]));
+		assertThrows(IllegalArgumentException.class, () -> b.add(1, -1));
+	}
+	
+	@Test
+	void nearOptimalCost() {
+		SplittableRandom r = new SplittableRandom(49);
+		for (int t = 0; t < 50; ++t) {
+			int n = 1 + r.nextInt(60);
+			int[] keys = new int[n];
+			long[] weights = new long[n];
+			for (int i = 0; i < n; ++i) {
+				keys[i] = 3 * i;
+				// Skewed weights, with some keys never accessed
+				weights[i] = r.nextInt(4) == 0 ? 0 : 1L << r.nextInt(12);
+			}
+			OptimalTree ot = OptimalTree.build(keys, weights);
+			long total = 0;
+			for (long w : weights)
+				total += w;
+			if (total == 0)
+				continue;
+			double optimal = (double) optimal(weights) / total;
+			assertTrue(ot.cost() >= optimal - 1e-9);
+			assertTrue(ot.cost() <= optimal + 2, ot.cost() + " against " + optimal);
+		}
+	}
+	
+	/**
+	 * Computes the weighted path length of the optimal tree with Knuth's
+	 * quadratic algorithm.
+	 * @param w The weight of every key
+	 * @return Sum of every key's weight times its number of compares
+	 */
+	private static long optimal(long[] w) {
+		int n = w.length;
+		long[][] cost = new long[n + 2][n + 1];
+		int[][] root = new int[n + 2][n + 1];
+		long[] prefix = new long[n + 1];
+		for (int i = 0; i < n; ++i)
+			prefix[i + 1] = prefix[i] + w[i];
+		for (int i = 1; i <= n; ++i) {
+			cost[i][i] = w[i - 1];
+			root[i][i] = i;
+		}
+		for (int len = 2; len <= n; ++len)
+			for (int i = 1; i + len - 1 <= n; ++i) {
+				int j = i + len - 1;
+				cost[i][j] = Long.MAX_VALUE;
+				for (int k = root[i][j - 1]; k <= root[i + 1][j]; ++k) {
+					long c = (k > i ? cost[i][k - 1] : 0) + (k < j ? cost[k + 1][j] : 0);
+					if (c < cost[i][j]) {
+						cost[i][j] = c;
+						root[i][j] = k;
+					}
+				}
+				cost[i][j] += prefix[j] - prefix[i - 1];
+			}
+		return cost[1][n];
+	}
+}
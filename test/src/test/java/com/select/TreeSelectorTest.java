@@ -0,0 +1,66 @@
+package com.select;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.avl.AVLTree;
+import com.splay.SplayTree;
+import com.tree.SearchTree;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Workload-driven tree selection tests.
+ * @author Benjamin Vial (29590765)
+ */
+class TreeSelectorTest {
+	@Test
+	void appliesOperationsPastTheSample() {
+		TreeSelector ts = new TreeSelector(100);
+		for (int i = 0; i < 100; i++)
+			ts.handle('a', i);
+		assertTrue(ts.profile().contains("Operations\t\t100\n"));
+		SearchTree st = ts.tree();
+		for (int i = 100; i < 150; i++)
+			ts.handle('a', i);
+		ts.handle('r', 0);
+		assertEquals(149, st.size());
+		assertEquals(149, st.counter().adds() - st.counter().removes());
+	}
+	
+	@Test
+	void selectsFromAShortStream() {
+		TreeSelector ts = new TreeSelector();
+		for (int i = 0; i < 10; i++)
+			ts.handle('a', i);
+		assertNull(ts.profile());
+		assertEquals(10, ts.tree().size());
+		assertTrue(ts.profile().contains("Operations\t\t10\n"));
+		assertThrows(IllegalArgumentException.class, () -> new TreeSelector(0));
+	}
+	
+	@Test
+	void selectsTheCheaperTree() {
+		SplittableRandom r = new SplittableRandom(35);
+		// Finds concentrated on a few keys favour splaying them to the top
+		TreeSelector skewed = new TreeSelector(20_000);
+		for (int i = 0; i < 1000; i++)
+			skewed.handle('a', i < 4 ? 42 + i : r.nextInt(1_000_000));
+		for (int i = 0; i < 19_000; i++)
+			skewed.handle('f', 42 + r.nextInt(4));
+		assertTrue(skewed.tree() instanceof SplayTree, skewed.profile());
+		// Uniform finds favour a balanced tree
+		TreeSelector uniform = new TreeSelector(20_000);
+		int[] keys = new int[1000];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = r.nextInt(1_000_000);
+			uniform.handle('a', keys[i]);
+		}
+		for (int i = 0; i < 19_000; i++)
+			uniform.handle('f', keys[r.nextInt(keys.length)]);
+		assertTrue(uniform.tree() instanceof AVLTree, uniform.profile());
+	}
+}
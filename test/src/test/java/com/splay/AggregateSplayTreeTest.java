@@ -0,0 +1,124 @@
+package com.splay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.splay.AggregateSplayTree.Aggregate;
+import com.splay.AggregateSplayTree.Monoid;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Aggregate splay tree tests.
+ * @author Benjamin Vial (29590765)
+ */
+class AggregateSplayTreeTest {
+	@Test
+	void emptyRange() {
+		AggregateSplayTree<Aggregate> ast = new AggregateSplayTree<>(Aggregate.MONOID);
+		ast.add(5, 50);
+		Aggregate a = ast.aggregate(6, 9);
+		assertEquals(0, a.count());
+		assertEquals(0, a.sum());
+		assertEquals(Long.MAX_VALUE, a.min());
+		assertEquals(Long.MIN_VALUE, a.max());
+		assertEquals(1, ast.aggregate(5, 5).count());
+		assertThrows(IllegalArgumentException.class, () -> ast.aggregate(2, 1));
+	}
+	
+	@Test
+	void monoidCombinesInKeyOrder() {
+		Monoid<String> concat = new Monoid<String>() {
+			@Override
+			public String combine(String a, String b) {
+				return a + b;
+			}
+			
+			@Override
+			public String identity() {
+				return "";
+			}
+			
+			@Override
+			public String of(long v) {
+				return Character.toString((char) v);
+			}
+		};
+		AggregateSplayTree<String> ast = new AggregateSplayTree<>(concat);
+		String s = "splaytrees";
+		for (int i : new int[] { 7, 2, 9, 0, 4, 1, 8, 3, 6, 5 })
+			ast.add(i, s.charAt(i));
+		assertEquals(s, ast.aggregate(Integer.MIN_VALUE, Integer.MAX_VALUE));
+		assertEquals("layt", ast.aggregate(2, 5));
+		assertEquals("", ast.aggregate(10, 20));
+		assertEquals(10, ast.size());
+	}
+	
+	@Test
+	void rangesOnAPathAreAmortized() {
+		AggregateSplayTree<Aggregate> ast = new AggregateSplayTree<>(Aggregate.MONOID);
+		// Increasing adds leave a left path
+		for (int i = 1; i <= 20_000; i++)
+			ast.add(i, i);
+		long before = ast.counter().compares();
+		// A range without neighbours splays neither of them
+		for (int i = 0; i < 200; i++)
+			assertEquals(20_000, ast.aggregate(Integer.MIN_VALUE, Integer.MAX_VALUE).count());
+		long compares = ast.counter().compares() - before;
+		// Only the first query walks the whole path
+		assertTrue(compares < 200_000, "compares: " + compares);
+		assertEquals(55, ast.aggregate(Integer.MIN_VALUE, 10).sum());
+	}
+	
+	@Test
+	void matchesScan() {
+		SplittableRandom r = new SplittableRandom(48);
+		AggregateSplayTree<Aggregate> ast = new AggregateSplayTree<>(Aggregate.MONOID);
+		List<long[]> ref = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			int k = r.nextInt(1000);
+			switch (r.nextInt(4)) {
+			case 0:
+				long v = r.nextLong(-1000, 1000);
+				ast.add(k, v);
+				ref.add(new long[] { k, v });
+				break;
+			case 1:
+				AggregateSplayTree.AggregateNode<Aggregate> an = ast.remove(k);
+				assertEquals(ref.stream().anyMatch(e -> e[0] == k), an != null);
+				for (int j = 0; an != null && j < ref.size(); j++)
+					if (ref.get(j)[0] == k && ref.get(j)[1] == an.value()) {
+						ref.remove(j);
+						break;
+					}
+				break;
+			case 2:
+				ast.find(k);
+				break;
+			default:
+				int hi = k + r.nextInt(200);
+				int count = 0;
+				long sum = 0;
+				long min = Long.MAX_VALUE;
+				long max = Long.MIN_VALUE;
+				for (long[] e : ref)
+					if (e[0] >= k && e[0] <= hi) {
+						++count;
+						sum += e[1];
+						min = Math.min(min, e[1]);
+						max = Math.max(max, e[1]);
+					}
+				Aggregate a = ast.aggregate(k, hi);
+				assertEquals(count, a.count());
+				assertEquals(sum, a.sum());
+				assertEquals(min, a.min());
+				assertEquals(max, a.max());
+			}
+			assertEquals(ref.size(), ast.size());
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.splay;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Batched splay tree operation tests.
+ * @author Benjamin Vial (29590765)
+ */
+class BatchTest {
+	@Test
+	void reorderingKeepsResults() {
+		SplittableRandom r = new SplittableRandom(46);
+		char[] ops = new char[10_000];
+		int[] values = new int[ops.length];
+		for (int i = 0; i < ops.length; i++) {
+			int c = r.nextInt(10);
+			ops[i] = c == 0 ? 'a' : c == 1 ? 'r' : 'f';
+			values[i] = r.nextInt(5000);
+		}
+		SplayTree single = new SplayTree(IntStream.range(0, 2500).map(v -> 2 * v));
+		boolean[] expected = new boolean[ops.length];
+		for (int i = 0; i < ops.length; i++)
+			expected[i] = ops[i] == 'a' ? single.add(values[i]) != null
+					: ops[i] == 'f' ? single.find(values[i]) != null : single.remove(values[i]) != null;
+		for (boolean reorder : new boolean[] { false, true }) {
+			SplayTree batch = new SplayTree(IntStream.range(0, 2500).map(v -> 2 * v));
+			boolean[] results = new boolean[ops.length];
+			batch.apply(ops, values, 0, ops.length, results, reorder);
+			assertArrayEquals(expected, results);
+			assertEquals(single.size(), batch.size());
+		}
+	}
+	
+	@Test
+	void sortedLookupsCompareLess() {
+		int[] values = new SplittableRandom(7).ints(100_000, 0, 200_000).toArray();
+		char[] ops = new char[values.length];
+		Arrays.fill(ops, 'f');
+		boolean[] results = new boolean[values.length];
+		long[] compares = new long[2];
+		for (int i = 0; i < 2; i++) {
+			SplayTree st = new SplayTree(IntStream.range(0, 100_000).map(v -> 2 * v));
+			st.apply(ops, values, 0, values.length, results, i == 1);
+			compares[i] = st.counter().compares();
+		}
+		assertTrue(compares[1] * 2 < compares[0]);
+	}
+	
+	@Test
+	void unknownOperationAppliesNothing() {
+		SplayTree st = new SplayTree();
+		assertThrows(IllegalArgumentException.class, () -> st.apply(new char[] { 'a', 'x' }, new int[] { 1, 2 }, 0, 2,
+				new boolean[2], false));
+		assertTrue(st.isEmpty());
+		assertThrows(IndexOutOfBoundsException.class, () -> st.apply(new char[2], new int[1], 0, 2,
+				new boolean[2], false));
+	}
+}
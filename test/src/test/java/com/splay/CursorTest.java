@@ -0,0 +1,79 @@
+package com.splay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Splay tree cursor tests.
+ * @author Benjamin Vial (29590765)
+ */
+class CursorTest {
+	@Test
+	void iteratesInOrder() {
+		SplayTree st = new SplayTree();
+		for (int n : new int[] { 5, 3, 8, 3, 1 })
+			st.add(n);
+		SplayTree.Cursor c = st.cursor();
+		assertFalse(c.valid());
+		assertThrows(NoSuchElementException.class, c::next);
+		StringBuilder sb = new StringBuilder();
+		for (boolean more = c.first(); more; more = c.next())
+			sb.append(c.val()).append(' ');
+		assertEquals("1 3 3 5 8 ", sb.toString());
+		sb.setLength(0);
+		for (boolean more = c.last(); more; more = c.prev())
+			sb.append(c.val()).append(' ');
+		assertEquals("8 5 3 3 1 ", sb.toString());
+		assertTrue(c.seek(8));
+		c.release(true);
+		assertFalse(c.valid());
+		assertEquals(0, st.search(8));
+	}
+	
+	@Test
+	void seekMatchesCeiling() {
+		SplittableRandom r = new SplittableRandom(47);
+		SplayTree st = new SplayTree();
+		TreeMap<Integer, Integer> ref = new TreeMap<>();
+		for (int i = 0; i < 2000; i++) {
+			int n = r.nextInt(10_000);
+			st.add(n);
+			ref.merge(n, 1, Integer::sum);
+		}
+		SplayTree.Cursor c = st.cursor();
+		for (int i = 0; i < 20_000; i++) {
+			// Mostly short hops, sometimes long jumps
+			int n = r.nextInt(4) == 0 ? r.nextInt(-100, 10_100) : (c.valid() ? c.val() : 0) + r.nextInt(-50, 50);
+			Integer ceiling = ref.ceilingKey(n);
+			assertEquals(ceiling != null && ceiling == n, c.seek(n));
+			assertEquals(ceiling != null, c.valid());
+			if (ceiling != null) {
+				assertEquals((int) ceiling, c.val());
+				// Leftmost among duplicates
+				assertTrue(!c.prev() || c.val() < ceiling);
+				c.seek(n);
+			}
+		}
+	}
+	
+	@Test
+	void sequentialSeeksAreCheap() {
+		SplayTree st = new SplayTree(IntStream.range(0, 1 << 20));
+		long before = st.counter().compares();
+		SplayTree.Cursor c = st.cursor();
+		for (int i = 0; i < 1 << 20; i += 3)
+			assertTrue(c.seek(i));
+		long compares = st.counter().compares() - before;
+		// A search from the root takes about 20 compares
+		assertTrue(compares < 8L * (1 << 20) / 3, "compares: " + compares);
+	}
+}
@@ -0,0 +1,90 @@
+package com.splay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.splay.opcount.OperationCounter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Splay tree snapshot and restore tests.
+ * @author Benjamin Vial (29590765)
+ */
+class SnapshotTest {
+	/**
+	 * Restores a tree from the specified snapshot bytes.
+	 * @param b The snapshot
+	 * @return The restored tree
+	 * @throws IOException Never
+	 */
+	private static SplayTree restore(byte[] b) throws IOException {
+		return SplayTree.restore(Channels.newChannel(new ByteArrayInputStream(b)), SplayPolicy.ALWAYS,
+				new OperationCounter());
+	}
+	
+	/**
+	 * Takes a snapshot of the specified tree.
+	 * @param st The tree
+	 * @return The snapshot
+	 * @throws IOException Never
+	 */
+	private static byte[] snapshot(SplayTree st) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		st.snapshot(Channels.newChannel(out));
+		return out.toByteArray();
+	}
+	
+	@Test
+	void invalidSnapshotsAreRejected() throws IOException {
+		SplayTree st = new SplayTree(new int[] { 1, 2, 3 });
+		byte[] b = snapshot(st);
+		assertThrows(NumberFormatException.class, () -> restore(Arrays.copyOf(b, b.length - 1)));
+		assertThrows(NumberFormatException.class, () -> restore(Arrays.copyOf(b, 6)));
+		b[0] = 'X';
+		assertThrows(NumberFormatException.class, () -> restore(b));
+	}
+	
+	@Test
+	void restoreKeepsTheExactShape() throws IOException {
+		SplayTree st = new SplayTree();
+		Random r = new Random(352);
+		for (int i = 0; i < 100_000; i++)
+			st.add(r.nextInt() >> r.nextInt(32));
+		for (int i = 0; i < 1_000; i++)
+			st.find(r.nextInt(100));
+		st.add(Integer.MIN_VALUE);
+		st.add(Integer.MAX_VALUE);
+		SplayTree rt = restore(snapshot(st));
+		assertEquals(st.toString(), rt.toString());
+		assertEquals(st.size(), rt.size());
+		assertEquals(0, rt.counter().adds() + rt.counter().parentChanges());
+		// The restored tree keeps working, parent pointers included
+		for (int i = 0; i < 1_000; i++) {
+			int v = r.nextInt(100);
+			assertEquals(st.find(v) != null, rt.find(v) != null);
+			st.remove(v);
+			rt.remove(v);
+		}
+		assertEquals(st.toString(), rt.toString());
+	}
+	
+	@Test
+	void restoreOfDegenerateAndEmptyTrees() throws IOException {
+		SplayTree st = new SplayTree();
+		for (int i = 0; i < 500_000; i++)
+			st.add(i);
+		byte[] b = snapshot(st);
+		// Sequential values take one byte each
+		assertTrue(b.length < 13 + 500_000 + 10);
+		assertEquals(st.toString(), restore(b).toString());
+		assertTrue(restore(snapshot(new SplayTree())).isEmpty());
+	}
+}
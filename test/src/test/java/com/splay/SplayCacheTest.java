@@ -0,0 +1,77 @@
+package com.splay;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Bounded splay cache tests.
+ * @author Benjamin Vial (29590765)
+ */
+class SplayCacheTest {
+	@Test
+	void countsAndRanges() {
+		SplayCache<String> sc = new SplayCache<>(3);
+		assertNull(sc.put(1, "a"));
+		sc.put(2, "b");
+		assertEquals("b", sc.put(2, "B"));
+		sc.put(3, "c");
+		assertEquals("B", sc.get(2));
+		assertNull(sc.get(4));
+		assertEquals("a", sc.remove(1));
+		int[] keys = new int[4];
+		assertEquals(2, sc.keys(0, 10, keys));
+		assertArrayEquals(new int[] { 2, 3 }, Arrays.copyOf(keys, 2));
+		assertEquals(1, sc.counter().hits());
+		assertEquals(1, sc.counter().misses());
+		assertEquals(0, sc.counter().evictions());
+		assertTrue(sc.stats().contains("Cache hit"));
+		assertFalse(new SplayTree().stats().contains("Cache hit"));
+		assertThrows(IllegalArgumentException.class, () -> new SplayCache<>(0));
+	}
+	
+	@Test
+	void hotKeysSurviveColdStream() {
+		SplayCache<Integer> sc = new SplayCache<>(100);
+		int[] hot = { 1_000_003, 1_000_050, 1_000_500, 1_005_000, 1_050_000 };
+		for (int i = 0; i < 10_000; i++) {
+			sc.put(i, i);
+			for (int h : hot)
+				if (sc.get(h) == null)
+					sc.put(h, h);
+		}
+		assertEquals(100, sc.size());
+		for (int h : hot)
+			assertEquals(h, sc.get(h));
+		long puts = sc.counter().adds();
+		assertEquals(puts - 100, sc.counter().evictions());
+		// Only the first accesses to the hot keys miss
+		assertEquals(hot.length, sc.counter().misses());
+	}
+	
+	@Test
+	void timeOrderedKeysEvictCheaply() {
+		int capacity = 1 << 16;
+		SplayCache<Integer> sc = new SplayCache<>(capacity);
+		// Every put splays the greatest key to the root, leaving a path below
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			for (int i = 0; i < 300_000; i++)
+				sc.put(i, i);
+		});
+		assertEquals(capacity, sc.size());
+		assertEquals(300_000 - capacity, sc.counter().evictions());
+		int[] keys = new int[capacity + 1];
+		assertEquals(capacity, sc.keys(Integer.MIN_VALUE, Integer.MAX_VALUE, keys));
+		assertEquals(300_000 - capacity, keys[0]);
+		assertEquals(299_999, keys[capacity - 1]);
+	}
+}
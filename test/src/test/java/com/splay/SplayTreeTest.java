@@ -0,0 +1,230 @@
+package com.splay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Splay tree tests, checked against a reference multiset (the tree keeps
+ * duplicate values).
+ * @author Benjamin Vial (29590765)
+ */
+class SplayTreeTest {
+	/**
+	 * Adds a value to the reference multiset.
+	 * @param tm The reference multiset
+	 * @param v The value to add
+	 */
+	private static void add(TreeMap<Integer, Integer> tm, int v) {
+		tm.merge(v, 1, Integer::sum);
+	}
+	
+	/**
+	 * Checks that the tree holds exactly the values of the reference multiset.
+	 * @param tm The reference multiset
+	 * @param st The tree to check
+	 */
+	private static void assertSameContents(TreeMap<Integer, Integer> tm, SplayTree st) {
+		assertEquals(tm.values().stream().mapToInt(Integer::intValue).sum(), st.size());
+		for (int v : tm.keySet())
+			assertTrue(st.search(v) >= 0, "Missing " + v);
+	}
+	
+	/**
+	 * Removes one occurrence of a value from the reference multiset.
+	 * @param tm The reference multiset
+	 * @param v The value to remove
+	 */
+	private static void remove(TreeMap<Integer, Integer> tm, int v) {
+		tm.computeIfPresent(v, (k, c) -> c == 1 ? null : c - 1);
+	}
+	
+	@Test
+	void addAllMatchesIndividualAdds() {
+		SplayTree st = new SplayTree();
+		TreeMap<Integer, Integer> tm = new TreeMap<>();
+		for (int i = 0; i < 100; i += 3) {
+			st.add(i);
+			add(tm, i);
+		}
+		int[] a = new int[500];
+		for (int i = 0; i < a.length; i++) {
+			a[i] = i * 2;
+			add(tm, a[i]);
+		}
+		st.addAll(a);
+		assertSameContents(tm, st);
+		assertThrows(IllegalArgumentException.class, () -> st.addAll(new int[] { 2, 1 }));
+	}
+	
+	@Test
+	void joinsWithAPathAreAmortized() {
+		SplayTree lo = new SplayTree(new int[] { 5 });
+		SplayTree st = new SplayTree();
+		// Increasing adds leave a left path, with the minimum at the bottom
+		for (int i = 1; i <= 20_000; i++)
+			st.add(i);
+		for (int i = 0; i < 200; i++)
+			assertThrows(IllegalArgumentException.class, () -> lo.join(st));
+		// The first join splays the minimum, roughly halving the path
+		assertTrue(st.height() < 10_100, "height: " + st.height());
+		assertEquals(20_000, st.size());
+		assertEquals(1, lo.size());
+	}
+	
+	@Test
+	void randomOperationsMatchReference() {
+		for (SplayPolicy sp : new SplayPolicy[] { SplayPolicy.ALWAYS, SplayPolicy.SEMI, SplayPolicy.depth(4), SplayPolicy.probability(0.5) }) {
+			SplayTree st = new SplayTree(sp);
+			TreeMap<Integer, Integer> tm = new TreeMap<>();
+			Random r = new Random(352);
+			for (int i = 0; i < 20_000; i++) {
+				int v = r.nextInt(1_000);
+				switch (r.nextInt(3)) {
+				case 0:
+					st.add(v);
+					add(tm, v);
+					break;
+				case 1:
+					assertEquals(tm.containsKey(v), st.find(v) != null);
+					break;
+				default:
+					st.remove(v);
+					remove(tm, v);
+					break;
+				}
+			}
+			assertSameContents(tm, st);
+		}
+	}
+	
+	@Test
+	void removeLastElement() {
+		SplayTree st = new SplayTree();
+		st.add(7);
+		assertNotNull(st.remove(7));
+		assertTrue(st.isEmpty());
+		assertNull(st.find(7));
+	}
+	
+	@Test
+	void sequentialAddsDoNotOverflowTheStack() {
+		SplayTree st = new SplayTree();
+		for (int i = 0; i < 200_000; i++)
+			st.add(i);
+		assertNotNull(st.find(0));
+		assertEquals(200_000, st.size());
+	}
+	
+	@Test
+	void splitAndJoin() {
+		SplayTree st = new SplayTree(new int[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+		SplayTree hi = st.split(5);
+		assertEquals(4, st.size());
+		assertEquals(5, hi.size());
+		assertTrue(hi.search(5) >= 0);
+		assertTrue(st.search(5) < 0);
+		assertThrows(IllegalArgumentException.class, () -> hi.join(st));
+		st.join(hi);
+		assertEquals(9, st.size());
+		assertTrue(hi.isEmpty());
+		
+		SplayTree mid = st.removeRange(3, 6);
+		assertEquals(4, mid.size());
+		assertEquals(5, st.size());
+		assertTrue(st.search(4) < 0);
+	}
+	
+	@Test
+	void splitMatchesReference() {
+		Random r = new Random(26);
+		for (int t = 0; t < 200; t++) {
+			SplayTree st = new SplayTree();
+			TreeMap<Integer, Integer> tm = new TreeMap<>();
+			for (int i = 0; i < 50; i++) {
+				int v = r.nextInt(40);
+				st.add(v);
+				add(tm, v);
+			}
+			int n = r.nextInt(44) - 2;
+			SplayTree hi = st.split(n);
+			assertEquals(tm.headMap(n).values().stream().mapToInt(Integer::intValue).sum(), st.size());
+			assertEquals(tm.tailMap(n).values().stream().mapToInt(Integer::intValue).sum(), hi.size());
+			for (int v : tm.keySet())
+				assertTrue((v < n ? st : hi).search(v) >= 0, "Missing " + v);
+		}
+	}
+	
+	@Test
+	void splitsOnAPathAreAmortized() {
+		SplayTree st = new SplayTree();
+		// Decreasing adds leave a right path
+		for (int i = 20_000; i > 0; i--)
+			st.add(i);
+		long before = st.counter().compares();
+		for (int i = 0; i < 200; i++)
+			st.join(st.split(20_001));
+		long compares = st.counter().compares() - before;
+		// Only the first split walks the whole path
+		assertTrue(compares < 100_000, "compares: " + compares);
+		assertEquals(20_000, st.size());
+	}
+	
+	@Test
+	void sizeTracksEveryChange() {
+		Random r = new Random(27);
+		SplayTree st = new SplayTree();
+		TreeMap<Integer, Integer> tm = new TreeMap<>();
+		for (int i = 0; i < 5_000; i++) {
+			int v = r.nextInt(500);
+			switch (r.nextInt(5)) {
+			case 0:
+				st.add(v);
+				add(tm, v);
+				break;
+			case 1:
+				st.remove(v);
+				remove(tm, v);
+				break;
+			case 2:
+				st.addAll(new int[] { v, v + 1 });
+				add(tm, v);
+				add(tm, v + 1);
+				break;
+			case 3:
+				SplayTree hi = st.split(v);
+				hi.add(v);
+				add(tm, v);
+				st.join(hi);
+				break;
+			default:
+				SplayTree range = st.removeRange(v, v + 5);
+				tm.subMap(v, true, v + 5, true).clear();
+				assertTrue(range.size() >= 0);
+				break;
+			}
+			assertEquals(tm.values().stream().mapToInt(Integer::intValue).sum(), st.size());
+		}
+	}
+	
+	@Test
+	void smallBatchesIntoALargeTreeAreCheap() {
+		SplayTree st = new SplayTree(IntStream.range(0, 1 << 20).map(v -> 2 * v));
+		// Counting the tree on every batch took seconds
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			for (int i = 0; i < 1000; i++)
+				st.addAll(new int[] { 2 * i + 1 });
+		});
+		assertEquals((1 << 20) + 1000, st.size());
+	}
+}
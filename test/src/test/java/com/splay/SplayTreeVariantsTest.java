@@ -0,0 +1,75 @@
+package com.splay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Comparator;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Long-keyed and generic splay tree tests, checked against the integer
+ * splay tree they share their splay algorithm with.
+ * @author Benjamin Vial (29590765)
+ */
+class SplayTreeVariantsTest {
+	@Test
+	void genericTreeWithComparator() {
+		GenericSplayTree<String> gst = new GenericSplayTree<>(Comparator.reverseOrder());
+		for (String s : new String[] { "b", "d", "a", "c" })
+			gst.add(s);
+		assertEquals("a", gst.find("a").val());
+		assertNull(gst.find("e"));
+		gst.remove("d");
+		StringBuilder sb = new StringBuilder();
+		for (String s : new String[] { "d", "c", "b", "a" })
+			sb.append(gst.search(s) >= 0 ? s : "");
+		assertEquals("cba", sb.toString());
+		assertEquals(3, gst.size());
+	}
+	
+	@Test
+	void sameShapesAsIntegerTree() {
+		SplayTree st = new SplayTree();
+		LongSplayTree lst = new LongSplayTree();
+		GenericSplayTree<Integer> gst = new GenericSplayTree<>();
+		SplittableRandom r = new SplittableRandom(44);
+		for (int i = 0; i < 20_000; i++) {
+			int n = r.nextInt(2000);
+			switch (r.nextInt(3)) {
+			case 0:
+				st.add(n);
+				lst.add(n);
+				gst.add(n);
+				break;
+			case 1:
+				boolean found = st.find(n) != null;
+				assertEquals(found, lst.find(n) != null);
+				assertEquals(found, gst.find(n) != null);
+				break;
+			default:
+				boolean removed = st.remove(n) != null;
+				assertEquals(removed, lst.remove((long) n) != null);
+				assertEquals(removed, gst.remove(n) != null);
+				break;
+			}
+		}
+		assertEquals(st.toString(), lst.toString());
+		assertEquals(st.toString(), gst.toString());
+		assertEquals(st.stats(), lst.stats());
+		assertEquals(st.stats(), gst.stats());
+	}
+	
+	@Test
+	void timestampsBeyondIntegerRange() {
+		LongSplayTree lst = new LongSplayTree();
+		long base = 1_700_000_000_000L;
+		for (long i = 0; i < 1000; i++)
+			lst.add(base + i * 1000);
+		assertEquals(base + 500_000, lst.find(base + 500_000).val());
+		assertTrue(lst.search(base + 1) < 0);
+		assertEquals(1000, lst.size());
+	}
+}
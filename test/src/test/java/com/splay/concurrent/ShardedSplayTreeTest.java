@@ -0,0 +1,101 @@
+package com.splay.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.splay.SplayPolicy;
+import com.splay.SplayTree;
+import com.splay.opcount.ConcurrentOperationCounter;
+import com.splay.opcount.NullOperationCounter;
+import com.splay.opcount.OperationCounter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Sharded splay tree tests.
+ * @author Benjamin Vial (29590765)
+ */
+class ShardedSplayTreeTest {
+	@Test
+	void concurrentWritersAndReaders() throws InterruptedException {
+		for (ShardedSplayTree sst : new ShardedSplayTree[] {
+				new ShardedSplayTree(8), new ShardedSplayTree(new int[] { 10_000, 20_000, 30_000 }) }) {
+			List<Thread> threads = new ArrayList<>();
+			AtomicInteger missing = new AtomicInteger();
+			AtomicInteger lookups = new AtomicInteger();
+			for (int t = 0; t < 4; t++) {
+				int base = t * 10_000;
+				SplittableRandom r = new SplittableRandom(t);
+				threads.add(new Thread(() -> {
+					for (int i = 0; i < 10_000; i++) {
+						sst.add(base + i);
+						// Every thread also reads the other threads' shards
+						sst.contains(r.nextInt(40_000));
+						if (!sst.contains(base + i))
+							missing.incrementAndGet();
+						lookups.addAndGet(2);
+					}
+					for (int i = 0; i < 10_000; i += 2)
+						if (!sst.remove(base + i))
+							missing.incrementAndGet();
+				}));
+			}
+			for (Thread t : threads)
+				t.start();
+			for (Thread t : threads)
+				t.join();
+			assertEquals(0, missing.get());
+			assertEquals(20_000, sst.size());
+			for (int i = 0; i < 40_000; i++)
+				assertEquals(i % 2 == 1, sst.contains(i));
+			OperationCounter oc = sst.counter();
+			assertEquals(40_000, oc.adds());
+			assertEquals(20_000, oc.removes());
+			// Every lookup is counted once, whether it splayed or not
+			assertEquals(lookups.get() + 40_000, oc.finds());
+		}
+	}
+	
+	@Test
+	void countsLikeASplayTree() {
+		SplittableRandom r = new SplittableRandom(30);
+		for (SplayPolicy sp : new SplayPolicy[] { SplayPolicy.ALWAYS, SplayPolicy.SEMI, SplayPolicy.depth(3) }) {
+			ShardedSplayTree sst = new ShardedSplayTree(1, sp);
+			SplayTree st = new SplayTree(sp);
+			for (int i = 0; i < 5000; i++) {
+				int n = r.nextInt(2000);
+				if (r.nextInt(3) == 0) {
+					sst.add(n);
+					st.add(n);
+				}
+				else
+					assertEquals(st.find(n) != null, sst.contains(n));
+			}
+			assertEquals(st.counter().finds(), sst.counter().finds());
+			assertEquals(st.counter().compares(), sst.counter().compares());
+			assertEquals(st.counter().parentChanges(), sst.counter().parentChanges());
+			assertEquals(st.height(), sst.height());
+		}
+	}
+	
+	@Test
+	void requiresThreadSafeCounter() {
+		assertThrows(IllegalArgumentException.class,
+				() -> new ShardedSplayTree(4, SplayPolicy.ALWAYS, new OperationCounter()));
+		assertThrows(IllegalArgumentException.class,
+				() -> new ShardedSplayTree(new int[] { 0 }, SplayPolicy.ALWAYS, new OperationCounter()));
+		assertThrows(IllegalArgumentException.class, () -> new ShardedSplayTree(0));
+		assertThrows(IllegalArgumentException.class, () -> new ShardedSplayTree(new int[] { 2, 1 }));
+		ShardedSplayTree sst = new ShardedSplayTree(4, SplayPolicy.ALWAYS, new NullOperationCounter());
+		assertTrue(sst.isEmpty());
+		sst.add(1);
+		assertFalse(sst.isEmpty());
+		assertTrue(new ConcurrentOperationCounter().isThreadSafe());
+	}
+}
@@ -0,0 +1,83 @@
+package com.splay.mapped;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.splay.SplayTree;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Memory-mapped splay tree tests, checked against {@code SplayTree}.
+ * @author Benjamin Vial (29590765)
+ */
+class MappedSplayTreeTest {
+	@TempDir
+	Path dir;
+	
+	@Test
+	void behavesLikeSplayTree() throws IOException {
+		SplayTree st = new SplayTree();
+		String file = dir.resolve("tree").toString();
+		Random r = new Random(352);
+		try (MappedSplayTree mt = new MappedSplayTree(file)) {
+			for (int i = 0; i < 50_000; i++) {
+				int v = r.nextInt(2_000);
+				switch (r.nextInt(3)) {
+				case 0:
+					st.add(v);
+					mt.add(v);
+					break;
+				case 1:
+					assertEquals(st.find(v) != null, mt.find(v) != null);
+					break;
+				default:
+					assertEquals(st.remove(v) != null, mt.remove(v) != null);
+					break;
+				}
+			}
+			assertEquals(st.toString(), mt.toString());
+			assertEquals(st.stats(), mt.stats());
+			assertEquals(st.size(), mt.size());
+			assertEquals(st.height(), mt.height());
+		}
+	}
+	
+	@Test
+	void invalidFileIsRejected() throws IOException {
+		Path file = dir.resolve("other");
+		byte[] other = { 'a', '1', '\n' };
+		Files.write(file, other);
+		assertThrows(NumberFormatException.class, () -> new MappedSplayTree(file.toString()));
+		// The file is left untouched
+		assertArrayEquals(other, Files.readAllBytes(file));
+	}
+	
+	@Test
+	void survivesReopening() throws IOException {
+		String file = dir.resolve("tree").toString();
+		String shape;
+		try (MappedSplayTree mt = new MappedSplayTree(file)) {
+			for (int i = 0; i < 10_000; i++)
+				mt.add(i * 7 % 10_000);
+			for (int i = 0; i < 5_000; i++)
+				mt.remove(i);
+			shape = mt.toString();
+		}
+		try (MappedSplayTree mt = new MappedSplayTree(file)) {
+			assertEquals(shape, mt.toString());
+			assertEquals(5_000, mt.size());
+			// Freed Nodes are reused before the file grows
+			for (int i = 0; i < 5_000; i++)
+				assertTrue(mt.add(i).index() <= 10_000);
+			assertEquals(10_000, mt.size());
+		}
+	}
+}
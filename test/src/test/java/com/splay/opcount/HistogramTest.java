@@ -0,0 +1,84 @@
+package com.splay.opcount;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Histogram tests.
+ * @author Benjamin Vial (29590765)
+ */
+class HistogramTest {
+	@Test
+	void bucketsStayWithinRelativeError() {
+		long[] values = { 128, 129, 255, 256, 257, 1000, 65_535, 65_536, 1L << 40, (1L << 40) + 12_345,
+				Long.MAX_VALUE / 3, Long.MAX_VALUE };
+		for (long v : values) {
+			Histogram h = new Histogram();
+			h.record(v);
+			h.record(Long.MAX_VALUE);
+			// The median is the highest value of v's bucket
+			long p = h.percentile(50);
+			assertTrue(p >= v && p - v <= v / 64, v + " -> " + p);
+		}
+	}
+	
+	@Test
+	void countsSmallValuesExactly() {
+		Histogram h = new Histogram();
+		for (int v = 127; v >= 0; v--)
+			h.record(v);
+		assertEquals(128, h.count());
+		assertEquals(0, h.min());
+		assertEquals(127, h.max());
+		assertEquals(63.5, h.mean());
+		for (int p = 1; p <= 100; p++)
+			assertEquals((long) Math.ceil(p * 1.28) - 1, h.percentile(p));
+		assertEquals(0, h.percentile(0));
+	}
+	
+	@Test
+	void copiesAndResets() {
+		Histogram h = new Histogram();
+		assertEquals(0, h.min());
+		assertEquals(0, h.percentile(99));
+		h.record(-5);
+		h.record(500);
+		Histogram copy = new Histogram(h);
+		h.reset();
+		assertEquals(0, h.count());
+		assertEquals(0, h.max());
+		assertEquals(2, copy.count());
+		// Negative values are recorded as zero
+		assertEquals(0, copy.min());
+		assertEquals(500, copy.max());
+		assertEquals(250.0, copy.mean());
+		assertThrows(IllegalArgumentException.class, () -> h.percentile(100.5));
+		assertThrows(IllegalArgumentException.class, () -> h.percentile(Double.NaN));
+	}
+	
+	@Test
+	void percentilesMatchSortedValues() {
+		SplittableRandom r = new SplittableRandom(42);
+		long[] values = new long[100_000];
+		Histogram h = new Histogram();
+		for (int i = 0; i < values.length; i++) {
+			// Spread the values over many orders of magnitude
+			values[i] = r.nextLong(1L << r.nextInt(1, 50));
+			h.record(values[i]);
+		}
+		Arrays.sort(values);
+		for (double p : new double[] { 1, 10, 50, 90, 99, 99.9, 100 }) {
+			long exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+			long approx = h.percentile(p);
+			assertTrue(approx >= exact && approx - exact <= exact / 64, p + ": " + exact + " -> " + approx);
+		}
+		assertEquals(values[0], h.min());
+		assertEquals(values[values.length - 1], h.max());
+	}
+}
@@ -0,0 +1,73 @@
+package com.splay.trace;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Synthetic operation generator tests.
+ * @author Benjamin Vial (29590765)
+ */
+class TraceGeneratorTest {
+	/**
+	 * Generates operations in the text format.
+	 * @param kd The key distribution
+	 * @param count Number of operations
+	 * @return The text operations
+	 * @throws IOException If the operations cannot be written
+	 */
+	private static byte[] generate(KeyDistribution kd, int count) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (TextTraceWriter ttw = new TextTraceWriter(Channels.newChannel(out))) {
+			new TraceGenerator(kd, 2, 1, 1, 352).generate(count, ttw);
+		}
+		return out.toByteArray();
+	}
+	
+	@Test
+	void invalidArgumentsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> KeyDistribution.uniform(0));
+		assertThrows(IllegalArgumentException.class, () -> KeyDistribution.zipf(10, 0.0));
+		assertThrows(IllegalArgumentException.class, () -> KeyDistribution.hotSet(10, 0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new TraceGenerator(KeyDistribution.uniform(10), 0, 0, 0, 0));
+	}
+	
+	@Test
+	void operationsFollowTheMixAndStayInRange() throws IOException {
+		int[] ops = new int[3];
+		byte[] b = generate(KeyDistribution.zipf(1_000, 1.1), 100_000);
+		new TraceReader((op, n) -> {
+			assertTrue(n >= 0 && n < 1_000);
+			++ops["afr".indexOf(op)];
+		}).read(Channels.newChannel(new ByteArrayInputStream(b)));
+		assertEquals(100_000, ops[0] + ops[1] + ops[2]);
+		assertEquals(0.5, ops[0] / 100_000.0, 0.01);
+		assertEquals(0.25, ops[2] / 100_000.0, 0.01);
+	}
+	
+	@Test
+	void sameSeedGivesSameOperations() throws IOException {
+		assertArrayEquals(generate(KeyDistribution.hotSet(10_000, 50, 100), 10_000),
+				generate(KeyDistribution.hotSet(10_000, 50, 100), 10_000));
+	}
+	
+	@Test
+	void zipfFavoursTheFirstRanks() {
+		int[] hits = new int[1_000];
+		SplittableRandom r = new SplittableRandom(1);
+		KeyDistribution kd = KeyDistribution.zipf(1_000, 1.0);
+		for (int i = 0; i < 100_000; ++i)
+			++hits[kd.next(r)];
+		// Rank 1 maps to key 0, and is drawn about 1 / H(1000) of the time
+		assertEquals(0.134, hits[0] / 100_000.0, 0.01);
+	}
+}
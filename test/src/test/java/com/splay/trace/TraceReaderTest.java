@@ -0,0 +1,64 @@
+package com.splay.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Text and binary operations file tests.
+ * @author Benjamin Vial (29590765)
+ */
+class TraceReaderTest {
+	private static final String TRACE = "a5\na-12\nf5\r\nr5\na2147483647\na-2147483648\nf0";
+	
+	/**
+	 * Reads the given bytes and collects the operations as text.
+	 * @param b The bytes to read
+	 * @return The operations, separated by spaces
+	 * @throws IOException If the bytes cannot be read
+	 */
+	private static String read(byte[] b) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		new TraceReader((op, n) -> sb.append(op).append(n).append(' '))
+				.read(Channels.newChannel(new ByteArrayInputStream(b)));
+		return sb.toString().trim();
+	}
+	
+	/**
+	 * Converts the text operations to the binary format.
+	 * @param delta Whether to use delta encoding
+	 * @return The binary operations
+	 * @throws IOException If the conversion fails
+	 */
+	private static byte[] toBinary(boolean delta) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (BinaryTraceWriter btw = new BinaryTraceWriter(Channels.newChannel(out), delta)) {
+			new TraceReader(btw).read(Channels.newChannel(new ByteArrayInputStream(TRACE.getBytes(StandardCharsets.US_ASCII))));
+		}
+		return out.toByteArray();
+	}
+	
+	@Test
+	void binaryRoundTrip() throws IOException {
+		String expected = read(TRACE.getBytes(StandardCharsets.US_ASCII));
+		assertEquals(expected, read(toBinary(false)));
+		assertEquals(expected, read(toBinary(true)));
+	}
+	
+	@Test
+	void overflowIsRejected() {
+		assertThrows(NumberFormatException.class, () -> read("a2147483648".getBytes(StandardCharsets.US_ASCII)));
+	}
+	
+	@Test
+	void textIsParsed() throws IOException {
+		assertEquals("a5 a-12 f5 r5 a2147483647 a-2147483648 f0", read(TRACE.getBytes(StandardCharsets.US_ASCII)));
+	}
+}
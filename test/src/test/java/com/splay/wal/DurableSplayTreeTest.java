@@ -0,0 +1,167 @@
+package com.splay.wal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Write-ahead log and durable splay tree tests.
+ * @author Benjamin Vial (29590765)
+ */
+class DurableSplayTreeTest {
+	@TempDir
+	Path dir;
+	
+	@Test
+	void checkpointKeepsOnlyLatestGeneration() throws IOException {
+		String d = dir.toString();
+		String before;
+		try (DurableSplayTree dst = new DurableSplayTree(d, 16, 1000)) {
+			SplittableRandom r = new SplittableRandom(7);
+			for (int i = 0; i < 2500; i++)
+				if (r.nextInt(4) == 0)
+					dst.remove(r.nextInt(500));
+				else
+					dst.add(r.nextInt(500));
+			assertEquals(2, dst.generation());
+			before = dst.toString();
+		}
+		assertTrue(Files.exists(dir.resolve("snapshot.2")));
+		assertFalse(Files.exists(dir.resolve("snapshot.1")));
+		assertFalse(Files.exists(dir.resolve("log.1")));
+		try (DurableSplayTree dst = new DurableSplayTree(d, 16, 1000)) {
+			// Only the 500 operations logged since the last checkpoint are replayed
+			assertEquals(500, dst.counter().adds() + dst.counter().removes());
+			assertEquals(before, dst.toString());
+		}
+	}
+	
+	@Test
+	void concurrentWritersShareSyncs() throws Exception {
+		String d = dir.toString();
+		try (DurableSplayTree dst = new DurableSplayTree(d, 8, 0)) {
+			List<Thread> threads = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				int base = t * 1000;
+				threads.add(new Thread(() -> {
+					for (int i = 0; i < 1000; i++)
+						dst.add(base + i);
+				}));
+			}
+			for (Thread t : threads)
+				t.start();
+			for (Thread t : threads)
+				t.join();
+		}
+		try (DurableSplayTree dst = new DurableSplayTree(d)) {
+			assertEquals(4000, dst.size());
+			for (int i = 0; i < 4000; i++)
+				assertTrue(dst.search(i) >= 0);
+		}
+	}
+	
+	@Test
+	void recoversAfterClose() throws IOException {
+		String d = dir.toString();
+		String before;
+		try (DurableSplayTree dst = new DurableSplayTree(d)) {
+			for (int i = 0; i < 100; i++)
+				dst.add(i * 7 % 100);
+			for (int i = 0; i < 100; i += 3)
+				dst.remove(i);
+			dst.find(50);
+			before = dst.toString();
+		}
+		try (DurableSplayTree dst = new DurableSplayTree(d)) {
+			assertEquals(66, dst.size());
+			assertTrue(dst.search(3) < 0);
+			dst.find(50);
+			assertEquals(before, dst.toString());
+		}
+	}
+	
+	@Test
+	void shortLogIsRejectedUntouched() throws IOException {
+		byte[] garbage = { 'a', 'b', 'c' };
+		Path log = dir.resolve("log.0");
+		Files.write(log, garbage);
+		assertThrows(NumberFormatException.class, () -> new DurableSplayTree(dir.toString()));
+		assertArrayEquals(garbage, Files.readAllBytes(log));
+	}
+	
+	@Test
+	void strayFilesAreIgnored() throws IOException {
+		String d = dir.toString();
+		Files.write(dir.resolve("snapshot.bak"), new byte[] { 1, 2, 3 });
+		try (DurableSplayTree dst = new DurableSplayTree(d)) {
+			dst.add(1);
+			dst.checkpoint();
+		}
+		try (DurableSplayTree dst = new DurableSplayTree(d)) {
+			assertEquals(1, dst.size());
+		}
+		assertTrue(Files.exists(dir.resolve("snapshot.bak")));
+	}
+	
+	@Test
+	void tornTailIsDiscarded() throws IOException {
+		String d = dir.toString();
+		try (DurableSplayTree dst = new DurableSplayTree(d)) {
+			dst.add(1);
+			dst.add(1000);
+		}
+		Path log = dir.resolve("log.0");
+		long size = Files.size(log);
+		// Simulate a crash in the middle of writing the last operation
+		try (RandomAccessFile raf = new RandomAccessFile(log.toFile(), "rw")) {
+			raf.setLength(size - 1);
+		}
+		try (DurableSplayTree dst = new DurableSplayTree(d)) {
+			assertEquals(1, dst.size());
+			dst.add(2);
+		}
+		try (DurableSplayTree dst = new DurableSplayTree(d)) {
+			assertEquals(2, dst.size());
+			assertTrue(dst.search(2) >= 0);
+			assertTrue(dst.search(1000) < 0);
+		}
+	}
+	
+	@Test
+	void zeroFilledTailIsDiscarded() throws IOException {
+		String d = dir.toString();
+		try (DurableSplayTree dst = new DurableSplayTree(d)) {
+			dst.add(1);
+			dst.add(1000);
+		}
+		Path log = dir.resolve("log.0");
+		long size = Files.size(log);
+		// Simulate a crash after the file was extended but before it was written
+		try (RandomAccessFile raf = new RandomAccessFile(log.toFile(), "rw")) {
+			raf.setLength(size + 64);
+		}
+		try (DurableSplayTree dst = new DurableSplayTree(d)) {
+			assertEquals(2, dst.size());
+			assertEquals(2, dst.counter().adds() + dst.counter().removes());
+			assertEquals(size, Files.size(log));
+			dst.add(2);
+		}
+		try (DurableSplayTree dst = new DurableSplayTree(d)) {
+			assertEquals(3, dst.size());
+			assertTrue(dst.search(2) >= 0);
+		}
+	}
+}
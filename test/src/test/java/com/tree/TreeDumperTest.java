@@ -0,0 +1,92 @@
+package com.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.avl.AVLTree;
+import com.huffman.HuffmanTree;
+import com.splay.SplayTree;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Streaming tree dump tests.
+ * @author Benjamin Vial (29590765)
+ */
+class TreeDumperTest {
+	/**
+	 * Dumps the tree to a string.
+	 * @param bt The tree to dump
+	 * @param t The traversal order
+	 * @return The dump
+	 * @throws IOException Never
+	 */
+	private static String dump(BinaryTree<?> bt, Traversal t) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		bt.dump(sb, t);
+		return sb.toString();
+	}
+	
+	@Test
+	void degenerateTreeIsStreamed() throws IOException {
+		SplayTree st = new SplayTree();
+		for (int i = 0; i < 1_000_000; i++)
+			st.add(i);
+		long[] chars = new long[1];
+		Writer w = new Writer() {
+			@Override
+			public void close() { }
+			
+			@Override
+			public void flush() { }
+			
+			@Override
+			public void write(char[] cbuf, int off, int len) {
+				chars[0] += len;
+			}
+		};
+		st.dump(w, Traversal.PREORDER);
+		st.dump(w, Traversal.INORDER);
+		st.dumpDot(w);
+		assertTrue(chars[0] > 3_000_000);
+		assertEquals(st.toString().length(), dump(st, Traversal.PREORDER).length());
+	}
+	
+	@Test
+	void dotGraph() throws IOException {
+		AVLTree at = new AVLTree();
+		for (int i = 1; i <= 3; i++)
+			at.add(i);
+		StringBuilder sb = new StringBuilder();
+		at.dumpDot(sb);
+		assertEquals("digraph tree {\n"
+				+ "\tn0 [label=\"2\"];\n"
+				+ "\tn1 [label=\"1\"];\n"
+				+ "\tn0 -> n1 [label=\"L\"];\n"
+				+ "\tn2 [label=\"3\"];\n"
+				+ "\tn0 -> n2 [label=\"R\"];\n"
+				+ "}\n", sb.toString());
+	}
+	
+	@Test
+	void huffmanTree() throws IOException {
+		HuffmanTree ht = HuffmanTree.build(new char[] { 'a', 'b', '"' }, new int[] { 1, 2, 4 });
+		assertEquals(ht.toString(), dump(ht, Traversal.PREORDER));
+		assertEquals(3, dump(ht, Traversal.LEVEL_ORDER).split("\n").length);
+		StringBuilder sb = new StringBuilder();
+		ht.dumpDot(sb);
+		assertTrue(sb.toString().contains("[label=\"4-\\\"\"]"));
+	}
+	
+	@Test
+	void traversalOrders() throws IOException {
+		SplayTree st = new SplayTree(new int[] { 1, 2, 3, 4, 5, 6, 7 });
+		assertEquals("(1) (2) (3) (4) (5) (6) (7) ", dump(st, Traversal.INORDER));
+		assertEquals("(4) L(2) L(1) R(3) R(6) L(5) R(7) ", dump(st, Traversal.PREORDER));
+		assertEquals("(4) \n(2) (6) \n(1) (3) (5) (7) \n", dump(st, Traversal.LEVEL_ORDER));
+		assertEquals("", dump(new SplayTree(), Traversal.PREORDER));
+		assertEquals("", new SplayTree().toString());
+	}
+}